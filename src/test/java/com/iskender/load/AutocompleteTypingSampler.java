@@ -0,0 +1,489 @@
+package com.iskender.load;
+
+import com.iskender.utils.RateLimiter;
+import org.apache.jmeter.protocol.http.control.CookieManager;
+import org.apache.jmeter.protocol.http.control.Header;
+import org.apache.jmeter.protocol.http.control.HeaderManager;
+import org.apache.jmeter.samplers.AbstractSampler;
+import org.apache.jmeter.samplers.Entry;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.ThreadListener;
+import org.apache.jmeter.testelement.property.JMeterProperty;
+import org.apache.jmeter.testelement.property.TestElementProperty;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a user typing a search term into the autocomplete box: one suggestion request per
+ * keystroke prefix, separated by log-normally distributed inter-key delays. A request that is
+ * still in flight when the next key is pressed is cancelled, like the browser aborting a
+ * superseded XHR (on Java 16+ this also aborts the exchange on the wire). Every keystroke is
+ * reported as a sub-result; the parent result is the whole typing session and carries the
+ * response of the last prefix, which is what the user sees. The inter-key delays are paused out of
+ * the parent's elapsed time, so it measures waiting for suggestions, not typing speed.
+ *
+ * With limiterName set, every keystroke after the first takes a permit from the {@link RateLimitTimer}
+ * of that name, which only delays the sampler once; waiting for a permit is paused out like the
+ * inter-key delays. Headers and cookies come from the HTTP Header Manager and HTTP Cookie Manager in scope.
+ * Response bodies are kept as received (possibly compressed), they are only used for size.
+ */
+public class AutocompleteTypingSampler extends AbstractSampler implements TestBean, ThreadListener {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(AutocompleteTypingSampler.class);
+
+    private static final String HEADER_MANAGER = "AutocompleteTypingSampler.header_manager";
+    private static final String COOKIE_MANAGER = "AutocompleteTypingSampler.cookie_manager";
+
+    // Set by java.net.http itself, it rejects them as request headers
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private transient String protocol;
+    private transient String domain;
+    private transient String port;
+    private transient String path;
+    private transient String parameterName;
+    private transient String term;
+    private transient int minPrefixLength = 2;
+    private transient int keyDelayMedianMs = 180;
+    private transient double keyDelaySigma = 0.5;
+    private transient int maxKeyDelayMs = 1500;
+    private transient boolean cancelSuperseded = true;
+    private transient int responseTimeoutMs = 10000;
+    private transient String limiterName = "";
+
+    private transient boolean limiterMissingLogged;
+
+    // One client per JMeter thread, so connections are kept alive per virtual user
+    private transient HttpClient httpClient;
+
+    @Override
+    public SampleResult sample(Entry entry) {
+        SampleResult result = new SampleResult();
+        result.setSampleLabel(getName());
+        result.setDataType(SampleResult.TEXT);
+
+        List<String> prefixes = prefixes(term, minPrefixLength);
+        result.setSamplerData("Typing '" + term + "': " + prefixes.size() + " keystroke requests");
+        if (prefixes.isEmpty()) {
+            result.setSuccessful(false);
+            result.setResponseCode("500");
+            result.setResponseMessage("Search term shorter than minPrefixLength: '" + term + "'");
+            return result;
+        }
+
+        List<Keystroke> keystrokes = new ArrayList<>(prefixes.size());
+        result.sampleStart();
+        try {
+            for (int i = 0; i < prefixes.size(); i++) {
+                if (i > 0) {
+                    result.samplePause();
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(nextKeyDelay());
+                        TimeUnit.NANOSECONDS.sleep(reservePermit());
+                    } finally {
+                        result.sampleResume();
+                    }
+                    Keystroke previous = keystrokes.get(i - 1);
+                    if (cancelSuperseded && !previous.future.isDone()) {
+                        previous.cancel();
+                    }
+                }
+                harvestCookies(keystrokes);
+                keystrokes.add(send(prefixes.get(i)));
+            }
+            Keystroke last = keystrokes.get(keystrokes.size() - 1);
+            try {
+                last.future.get(responseTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Outcome is recorded on the keystroke itself
+            }
+            harvestCookies(keystrokes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            keystrokes.forEach(Keystroke::cancel);
+        }
+        result.sampleEnd();
+
+        Keystroke last = keystrokes.get(keystrokes.size() - 1);
+        int cancelled = 0;
+        int failed = 0;
+        for (Keystroke keystroke : keystrokes) {
+            SampleResult sub = keystroke.toSampleResult(getName());
+            if (keystroke.cancelled) {
+                cancelled++;
+            } else if (!sub.isSuccessful()) {
+                failed++;
+            }
+            result.addSubResult(sub, false);
+        }
+
+        result.setResponseCode(last.status > 0 ? String.valueOf(last.status) : "500");
+        result.setResponseData(last.body != null ? last.body : new byte[0]);
+        result.setResponseHeaders(last.headers != null ? last.headers : "");
+        result.setSuccessful(last.status >= 200 && last.status < 400 && failed == 0);
+        result.setResponseMessage(keystrokes.size() + " keystroke requests, " + cancelled + " cancelled, " + failed + " failed"
+                + (last.error != null ? ", last: " + last.error : ""));
+        return result;
+    }
+
+    static List<String> prefixes(String term, int minPrefixLength) {
+        List<String> prefixes = new ArrayList<>();
+        if (term == null) {
+            return prefixes;
+        }
+        String trimmed = term.trim();
+        for (int length = Math.max(1, minPrefixLength); length <= trimmed.length(); length++) {
+            // Autocomplete boxes trim trailing spaces, so a space keystroke sends nothing new
+            if (!Character.isWhitespace(trimmed.charAt(length - 1))) {
+                prefixes.add(trimmed.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * Inter-key delays are right-skewed: log-normal around the median, capped for long pauses
+     */
+    private long nextKeyDelay() {
+        double delay = keyDelayMedianMs * Math.exp(keyDelaySigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.max(0, Math.min(maxKeyDelayMs, Math.round(delay)));
+    }
+
+    /**
+     * @return nanoseconds to wait before the next keystroke request, 0 without a limiter
+     */
+    private long reservePermit() {
+        if (limiterName == null || limiterName.isEmpty()) {
+            return 0;
+        }
+        RateLimiter limiter = RateLimitTimer.limiter(limiterName);
+        if (limiter == null) {
+            if (!limiterMissingLogged) {
+                limiterMissingLogged = true;
+                logger.warn("No Rate Limit timer named '" + limiterName + "' in scope of " + getName() + ", keystrokes are not limited");
+            }
+            return 0;
+        }
+        return limiter.reserve();
+    }
+
+    private Keystroke send(String prefix) {
+        String url = protocol + "://" + domain + (port == null || port.isEmpty() ? "" : ":" + port) + path
+                + "?" + parameterName + "=" + URLEncoder.encode(prefix, StandardCharsets.UTF_8);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(responseTimeoutMs))
+                .GET();
+        HeaderManager headerManager = getHeaderManager();
+        if (headerManager != null) {
+            for (int i = 0; i < headerManager.size(); i++) {
+                Header header = headerManager.get(i);
+                if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                    request.setHeader(header.getName(), header.getValue());
+                }
+            }
+        }
+        CookieManager cookieManager = getCookieManager();
+        if (cookieManager != null) {
+            try {
+                String cookies = cookieManager.getCookieHeaderForURL(new URL(url));
+                if (cookies != null && !cookies.isEmpty()) {
+                    request.setHeader("Cookie", cookies);
+                }
+            } catch (Exception e) {
+                logger.debug("Cookies not applied to " + url + ": " + e.getMessage());
+            }
+        }
+
+        Keystroke keystroke = new Keystroke(prefix, url);
+        // Keep the exchange future itself: cancelling a dependent stage would not abort the request
+        keystroke.future = getHttpClient().sendAsync(request.build(), responseInfo -> {
+            keystroke.latencyAt = System.currentTimeMillis();
+            return HttpResponse.BodySubscribers.ofByteArray();
+        });
+        keystroke.future.whenComplete(keystroke::complete);
+        return keystroke;
+    }
+
+    /**
+     * Cookie Manager is not thread safe, so Set-Cookie headers are applied on the sampler thread
+     */
+    private void harvestCookies(List<Keystroke> keystrokes) {
+        CookieManager cookieManager = getCookieManager();
+        if (cookieManager == null) {
+            return;
+        }
+        for (Keystroke keystroke : keystrokes) {
+            if (keystroke.future.isDone() && !keystroke.cookiesHarvested && keystroke.setCookies != null) {
+                keystroke.cookiesHarvested = true;
+                for (String setCookie : keystroke.setCookies) {
+                    try {
+                        cookieManager.addCookieFromHeader(setCookie, new URL(keystroke.url));
+                    } catch (Exception e) {
+                        logger.debug("Ignoring cookie from " + keystroke.url + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private HttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(Duration.ofMillis(responseTimeoutMs))
+                    .build();
+        }
+        return httpClient;
+    }
+
+    @Override
+    public void addTestElement(TestElement element) {
+        if (element instanceof HeaderManager) {
+            HeaderManager current = getHeaderManager();
+            setTemporaryProperty(HEADER_MANAGER, current == null ? (HeaderManager) element : current.merge(element));
+        } else if (element instanceof CookieManager) {
+            setTemporaryProperty(COOKIE_MANAGER, element);
+        } else {
+            super.addTestElement(element);
+        }
+    }
+
+    private void setTemporaryProperty(String name, TestElement value) {
+        JMeterProperty property = new TestElementProperty(name, value);
+        setProperty(property);
+        setTemporary(property);
+    }
+
+    private HeaderManager getHeaderManager() {
+        return (HeaderManager) getProperty(HEADER_MANAGER).getObjectValue();
+    }
+
+    private CookieManager getCookieManager() {
+        return (CookieManager) getProperty(COOKIE_MANAGER).getObjectValue();
+    }
+
+    @Override
+    public void threadStarted() {
+        // Client is created lazily on the first keystroke
+    }
+
+    @Override
+    public void threadFinished() {
+        httpClient = null;
+    }
+
+    /**
+     * One prefix request; completion callbacks run on HttpClient threads, results are read on the sampler thread
+     */
+    private static class Keystroke {
+        private final String prefix;
+        private final String url;
+        private final long startedAt = System.currentTimeMillis();
+        private volatile long latencyAt;
+        private volatile long endedAt;
+        private volatile int status;
+        private volatile byte[] body;
+        private volatile String headers;
+        private volatile List<String> setCookies;
+        private volatile String error;
+        private volatile boolean cancelled;
+        private boolean cookiesHarvested;
+        private CompletableFuture<HttpResponse<byte[]>> future;
+
+        Keystroke(String prefix, String url) {
+            this.prefix = prefix;
+            this.url = url;
+        }
+
+        void complete(HttpResponse<byte[]> response, Throwable failure) {
+            if (endedAt == 0) {
+                endedAt = System.currentTimeMillis();
+            }
+            if (response != null) {
+                status = response.statusCode();
+                body = response.body();
+                setCookies = response.headers().allValues("set-cookie");
+                StringBuilder headerText = new StringBuilder();
+                for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+                    for (String value : header.getValue()) {
+                        headerText.append(header.getKey()).append(": ").append(value).append('\n');
+                    }
+                }
+                headers = headerText.toString();
+            } else if (failure != null && !cancelled) {
+                error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+            }
+        }
+
+        void cancel() {
+            if (!future.isDone()) {
+                cancelled = true;
+                endedAt = System.currentTimeMillis();
+                future.cancel(true);
+            }
+        }
+
+        SampleResult toSampleResult(String parentLabel) {
+            SampleResult sub = new SampleResult();
+            sub.setSampleLabel(parentLabel + (cancelled ? " keystroke (cancelled)" : " keystroke"));
+            sub.setSamplerData("GET " + url);
+            sub.setURL(toUrl(url));
+            long end = endedAt > 0 ? endedAt : System.currentTimeMillis();
+            sub.setStampAndTime(startedAt, end - startedAt);
+            if (latencyAt > 0) {
+                sub.setLatency(latencyAt - startedAt);
+            }
+            sub.setDataType(SampleResult.TEXT);
+            if (cancelled) {
+                // Superseded by the next keystroke: expected behaviour, not an error
+                sub.setSuccessful(true);
+                sub.setResponseCode("499");
+                sub.setResponseMessage("Cancelled by next keystroke (prefix '" + prefix + "')");
+            } else if (status > 0) {
+                sub.setSuccessful(status >= 200 && status < 400);
+                sub.setResponseCode(String.valueOf(status));
+                sub.setResponseMessage("prefix '" + prefix + "'");
+                sub.setResponseData(body != null ? body : new byte[0]);
+                sub.setResponseHeaders(headers);
+            } else {
+                sub.setSuccessful(false);
+                sub.setResponseCode("500");
+                sub.setResponseMessage(error != null ? error : "No response for prefix '" + prefix + "'");
+            }
+            return sub;
+        }
+
+        private static URL toUrl(String url) {
+            try {
+                return new URL(url);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public String getPort() {
+        return port;
+    }
+
+    public void setPort(String port) {
+        this.port = port;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public void setParameterName(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public int getMinPrefixLength() {
+        return minPrefixLength;
+    }
+
+    public void setMinPrefixLength(int minPrefixLength) {
+        this.minPrefixLength = minPrefixLength;
+    }
+
+    public int getKeyDelayMedianMs() {
+        return keyDelayMedianMs;
+    }
+
+    public void setKeyDelayMedianMs(int keyDelayMedianMs) {
+        this.keyDelayMedianMs = keyDelayMedianMs;
+    }
+
+    public double getKeyDelaySigma() {
+        return keyDelaySigma;
+    }
+
+    public void setKeyDelaySigma(double keyDelaySigma) {
+        this.keyDelaySigma = keyDelaySigma;
+    }
+
+    public int getMaxKeyDelayMs() {
+        return maxKeyDelayMs;
+    }
+
+    public void setMaxKeyDelayMs(int maxKeyDelayMs) {
+        this.maxKeyDelayMs = maxKeyDelayMs;
+    }
+
+    public boolean isCancelSuperseded() {
+        return cancelSuperseded;
+    }
+
+    public void setCancelSuperseded(boolean cancelSuperseded) {
+        this.cancelSuperseded = cancelSuperseded;
+    }
+
+    public int getResponseTimeoutMs() {
+        return responseTimeoutMs;
+    }
+
+    public void setResponseTimeoutMs(int responseTimeoutMs) {
+        this.responseTimeoutMs = responseTimeoutMs;
+    }
+
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    public void setLimiterName(String limiterName) {
+        this.limiterName = limiterName;
+    }
+}
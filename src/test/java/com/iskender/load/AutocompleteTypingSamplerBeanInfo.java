@@ -0,0 +1,73 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link AutocompleteTypingSampler}, labels are in AutocompleteTypingSamplerResources.properties
+ */
+public class AutocompleteTypingSamplerBeanInfo extends BeanInfoSupport {
+
+    public AutocompleteTypingSamplerBeanInfo() {
+        super(AutocompleteTypingSampler.class);
+
+        createPropertyGroup("endpoint", new String[]{"protocol", "domain", "port", "path", "parameterName"});
+        createPropertyGroup("typing", new String[]{"term", "minPrefixLength", "keyDelayMedianMs", "keyDelaySigma",
+                "maxKeyDelayMs", "cancelSuperseded", "responseTimeoutMs"});
+        createPropertyGroup("limit", new String[]{"limiterName"});
+
+        PropertyDescriptor p = property("protocol");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "https");
+
+        p = property("domain");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("port");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("path");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "/");
+
+        p = property("parameterName");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "keyword");
+
+        p = property("term");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("minPrefixLength");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 2);
+
+        p = property("keyDelayMedianMs");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 180);
+
+        p = property("keyDelaySigma");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0.5);
+
+        p = property("maxKeyDelayMs");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 1500);
+
+        p = property("cancelSuperseded");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.TRUE);
+
+        p = property("responseTimeoutMs");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 10000);
+
+        p = property("limiterName");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.iskender.load;
+
+import com.iskender.utils.Csv;
+import org.apache.jmeter.processor.PostProcessor;
+import org.apache.jmeter.protocol.http.sampler.HTTPSampleResult;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits every HTTP sample into connection phases and aggregates them per transaction:
+ * DNS (from TimedDnsCacheManager), connect (TCP + TLS), time to first byte after the connection is
+ * ready, and body transfer, plus whether the keep-alive connection was reused and the body size on
+ * the wire versus after decompression.
+ *
+ * As a post-processor it runs right after each sampler, before assertions may drop the body, and
+ * exposes the values as variables (phase_dns_ms, phase_connect_ms, phase_ttfb_ms,
+ * phase_transfer_ms, conn_reused, wire_bytes, decoded_bytes) for sample_variables in the JTL. As a
+ * listener it receives the transaction sample and files the phases under the transaction name. The
+ * aggregate is written as CSV to reportFile when the test ends.
+ *
+ * JMeter's HttpClient 4 sampler reports connect time as one value, so TCP and TLS handshake cannot
+ * be told apart and TLS session resumption is not visible. Non-HTTP samples are not broken down.
+ */
+public class ConnectionPhaseRecorder extends AbstractTestElement
+        implements Serializable, PostProcessor, SampleListener, TestStateListener, TestBean {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(ConnectionPhaseRecorder.class);
+
+    private static final String REPORT_FILE = "reportFile";
+
+    // DNS time spent by the current thread since its last sample, filled by TimedDnsCacheManager
+    private static final ThreadLocal<long[]> dnsNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private static final Map<String, PhaseStats> stats = new ConcurrentHashMap<>();
+
+    private transient String reportFile;
+
+    // Per clone, i.e. per thread: phases of the samples in the running transaction
+    private transient List<Phases> pending = new ArrayList<>();
+
+    static void recordDnsTime(long nanos) {
+        dnsNanos.get()[0] += nanos;
+    }
+
+    @Override
+    public void process() {
+        SampleResult result = JMeterContextService.getContext().getPreviousResult();
+        JMeterVariables variables = JMeterContextService.getContext().getVariables();
+        long dnsMs = Math.round(dnsNanos.get()[0] / 1_000_000.0);
+        dnsNanos.get()[0] = 0;
+        if (!(result instanceof HTTPSampleResult)) {
+            for (String name : new String[]{"phase_dns_ms", "phase_connect_ms", "phase_ttfb_ms", "phase_transfer_ms",
+                    "conn_reused", "wire_bytes", "decoded_bytes"}) {
+                variables.remove(name);
+            }
+            return;
+        }
+
+        // A followed redirect chain is one sample with the individual requests as sub-results
+        List<SampleResult> requests = new ArrayList<>();
+        collectRequests(result, requests);
+        Phases last = null;
+        for (int i = 0; i < requests.size(); i++) {
+            // Lookups are not attributed per redirect hop, charge them to the first request
+            last = new Phases(requests.get(i), i == 0 ? dnsMs : 0);
+            pending.add(last);
+        }
+        if (last != null) {
+            variables.put("phase_dns_ms", String.valueOf(last.dnsMs));
+            variables.put("phase_connect_ms", String.valueOf(last.connectMs));
+            variables.put("phase_ttfb_ms", String.valueOf(last.ttfbMs));
+            variables.put("phase_transfer_ms", String.valueOf(last.transferMs));
+            variables.put("conn_reused", String.valueOf(last.reused));
+            variables.put("wire_bytes", String.valueOf(last.wireBytes));
+            variables.put("decoded_bytes", String.valueOf(last.decodedBytes));
+        }
+    }
+
+    private static void collectRequests(SampleResult result, List<SampleResult> requests) {
+        SampleResult[] subResults = result.getSubResults();
+        if (subResults.length == 0) {
+            requests.add(result);
+            return;
+        }
+        for (SampleResult subResult : subResults) {
+            collectRequests(subResult, requests);
+        }
+    }
+
+    @Override
+    public void sampleOccurred(SampleEvent event) {
+        // The transaction sample arrives after its children were post-processed
+        String transaction = event.getResult().getSampleLabel();
+        for (Phases phases : pending) {
+            stats.computeIfAbsent(transaction + "\u0000" + phases.label, key -> new PhaseStats()).add(phases);
+        }
+        pending.clear();
+    }
+
+    @Override
+    public void sampleStarted(SampleEvent event) {
+        // Not used
+    }
+
+    @Override
+    public void sampleStopped(SampleEvent event) {
+        // Not used
+    }
+
+    @Override
+    public void testStarted() {
+        stats.clear();
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    @Override
+    public void testEnded() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        // Called on the element in the test plan, which is not prepared like thread clones are
+        String file = getPropertyAsString(REPORT_FILE);
+        if (file.isEmpty()) {
+            file = "connection_phases.csv";
+        }
+        Map<String, PhaseStats> sorted = new TreeMap<>(stats);
+        try (PrintWriter writer = new PrintWriter(new File(file), StandardCharsets.UTF_8.name())) {
+            writer.println(PhaseStats.CSV_HEADER);
+            for (Map.Entry<String, PhaseStats> entry : sorted.entrySet()) {
+                String[] key = entry.getKey().split("\u0000", 2);
+                writer.println(Csv.value(key[0]) + "," + Csv.value(key[1]) + "," + entry.getValue().toCsv());
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write connection phase report " + file + ": " + e.getMessage());
+            return;
+        }
+        logger.info("Connection phases written to " + new File(file).getAbsolutePath());
+        for (Map.Entry<String, PhaseStats> entry : sorted.entrySet()) {
+            logger.info(entry.getKey().replace("\u0000", " / ") + ": " + entry.getValue().summary());
+        }
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
+    /**
+     * Phases of one HTTP request. JMeter's connect time runs from sample start to connection ready
+     * and includes the DNS lookup; it is 0 when a kept-alive connection was reused.
+     */
+    private static class Phases {
+        private final String label;
+        private final long dnsMs;
+        private final long connectMs;
+        private final long ttfbMs;
+        private final long transferMs;
+        private final boolean reused;
+        private final long wireBytes;
+        private final long decodedBytes;
+
+        Phases(SampleResult request, long dnsMs) {
+            this.label = request.getSampleLabel();
+            long connect = request.getConnectTime();
+            this.reused = connect == 0;
+            this.dnsMs = Math.min(dnsMs, connect);
+            this.connectMs = Math.max(0, connect - this.dnsMs);
+            this.ttfbMs = Math.max(0, request.getLatency() - connect);
+            this.transferMs = Math.max(0, request.getTime() - request.getLatency());
+            // HttpClient 4 counts body bytes as received on the connection, the response data is decoded
+            this.wireBytes = request.getBodySizeAsLong();
+            this.decodedBytes = request.getResponseData().length;
+        }
+    }
+
+    private static class PhaseStats {
+        static final String CSV_HEADER = "transaction,sample,requests,reused_pct,new_connections,avg_dns_ms,"
+                + "avg_connect_ms,max_connect_ms,avg_ttfb_ms,max_ttfb_ms,avg_transfer_ms,max_transfer_ms,"
+                + "avg_wire_bytes,avg_decoded_bytes,compression_ratio";
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder newConnections = new LongAdder();
+        private final LongAdder dnsMs = new LongAdder();
+        private final LongAdder connectMs = new LongAdder();
+        private final LongAccumulator maxConnectMs = new LongAccumulator(Math::max, 0);
+        private final LongAdder ttfbMs = new LongAdder();
+        private final LongAccumulator maxTtfbMs = new LongAccumulator(Math::max, 0);
+        private final LongAdder transferMs = new LongAdder();
+        private final LongAccumulator maxTransferMs = new LongAccumulator(Math::max, 0);
+        private final LongAdder wireBytes = new LongAdder();
+        private final LongAdder decodedBytes = new LongAdder();
+
+        void add(Phases phases) {
+            requests.increment();
+            if (!phases.reused) {
+                // DNS and connect averages are over the requests that opened a connection
+                newConnections.increment();
+                dnsMs.add(phases.dnsMs);
+                connectMs.add(phases.connectMs);
+                maxConnectMs.accumulate(phases.connectMs);
+            }
+            ttfbMs.add(phases.ttfbMs);
+            maxTtfbMs.accumulate(phases.ttfbMs);
+            transferMs.add(phases.transferMs);
+            maxTransferMs.accumulate(phases.transferMs);
+            wireBytes.add(phases.wireBytes);
+            decodedBytes.add(phases.decodedBytes);
+        }
+
+        String toCsv() {
+            long n = requests.sum();
+            long connections = newConnections.sum();
+            return String.format(Locale.ROOT, "%d,%.1f,%d,%.1f,%.1f,%d,%.1f,%d,%.1f,%d,%d,%d,%.2f",
+                    n, 100.0 * (n - connections) / n, connections,
+                    average(dnsMs.sum(), connections), average(connectMs.sum(), connections), maxConnectMs.get(),
+                    average(ttfbMs.sum(), n), maxTtfbMs.get(), average(transferMs.sum(), n), maxTransferMs.get(),
+                    wireBytes.sum() / n, decodedBytes.sum() / n,
+                    wireBytes.sum() == 0 ? 0.0 : (double) decodedBytes.sum() / wireBytes.sum());
+        }
+
+        String summary() {
+            long n = requests.sum();
+            long connections = newConnections.sum();
+            return String.format(Locale.ROOT, "%d requests, %.0f%% reused, dns %.1f ms, connect %.1f ms (new connections), "
+                            + "ttfb %.1f ms, transfer %.1f ms, %d wire / %d decoded bytes",
+                    n, 100.0 * (n - connections) / n, average(dnsMs.sum(), connections),
+                    average(connectMs.sum(), connections), average(ttfbMs.sum(), n), average(transferMs.sum(), n),
+                    wireBytes.sum() / n, decodedBytes.sum() / n);
+        }
+
+        private static double average(long sum, long count) {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(String reportFile) {
+        this.reportFile = reportFile;
+    }
+}
@@ -0,0 +1,21 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link ConnectionPhaseRecorder}, labels are in ConnectionPhaseRecorderResources.properties
+ */
+public class ConnectionPhaseRecorderBeanInfo extends BeanInfoSupport {
+
+    public ConnectionPhaseRecorderBeanInfo() {
+        super(ConnectionPhaseRecorder.class);
+
+        createPropertyGroup("report", new String[]{"reportFile"});
+
+        PropertyDescriptor p = property("reportFile");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "connection_phases.csv");
+    }
+}
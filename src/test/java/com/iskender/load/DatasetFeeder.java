@@ -0,0 +1,296 @@
+package com.iskender.load;
+
+import com.iskender.utils.Csv;
+import org.apache.jmeter.config.ConfigTestElement;
+import org.apache.jmeter.engine.event.LoopIterationEvent;
+import org.apache.jmeter.engine.event.LoopIterationListener;
+import org.apache.jmeter.engine.util.NoConfigMerge;
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drop-in replacement for CSV Data Set Config with shareMode.all. The file is parsed once per test
+ * into an immutable table shared by all threads, and rows are handed out without locking: through
+ * one atomic cursor (sequential), uniformly at random, or at random weighted by a frequency column.
+ * With perThreadCursor every thread walks the table on its own, starting at its thread number.
+ */
+public class DatasetFeeder extends ConfigTestElement implements TestBean, LoopIterationListener, NoConfigMerge, TestStateListener {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(DatasetFeeder.class);
+
+    public static final String MODE_SEQUENTIAL = "sequential";
+    public static final String MODE_RANDOM = "random";
+    public static final String MODE_WEIGHTED = "weighted";
+
+    private static final String EOF = "<EOF>";
+
+    // Parsed datasets, shared by all thread clones for the duration of a test
+    private static final Map<String, Dataset> datasets = new ConcurrentHashMap<>();
+
+    private transient String filename;
+    private transient String fileEncoding;
+    private transient String variableNames;
+    private transient boolean ignoreFirstLine;
+    private transient String delimiter;
+    private transient String selectionMode;
+    private transient String weightColumn;
+    private transient boolean perThreadCursor;
+    private transient boolean recycle = true;
+    private transient boolean stopThread;
+
+    // Per clone, i.e. per thread
+    private transient long threadCursor = -1;
+
+    @Override
+    public void iterationStart(LoopIterationEvent event) {
+        Dataset dataset = datasets.computeIfAbsent(datasetKey(), key -> load());
+        JMeterContext context = JMeterContextService.getContext();
+        JMeterVariables variables = context.getVariables();
+
+        String[] row = nextRow(dataset, context);
+        if (row == null) {
+            for (String name : dataset.names) {
+                variables.put(name, EOF);
+            }
+            if (stopThread && context.getThread() != null) {
+                context.getThread().stop();
+            }
+            return;
+        }
+        for (int i = 0; i < dataset.names.length; i++) {
+            variables.put(dataset.names[i], i < row.length ? row[i] : "");
+        }
+    }
+
+    private String[] nextRow(Dataset dataset, JMeterContext context) {
+        int size = dataset.rows.length;
+        switch (getMode()) {
+            case MODE_RANDOM:
+                return dataset.rows[ThreadLocalRandom.current().nextInt(size)];
+            case MODE_WEIGHTED:
+                return dataset.rows[dataset.pickWeighted(ThreadLocalRandom.current().nextDouble())];
+            default:
+                long position;
+                if (perThreadCursor) {
+                    if (threadCursor < 0) {
+                        threadCursor = context.getThreadNum();
+                    }
+                    position = threadCursor++;
+                } else {
+                    position = dataset.cursor.getAndIncrement();
+                }
+                if (!recycle && position >= size) {
+                    return null;
+                }
+                return dataset.rows[(int) (position % size)];
+        }
+    }
+
+    private String getMode() {
+        return selectionMode == null || selectionMode.isEmpty() ? MODE_SEQUENTIAL : selectionMode.trim().toLowerCase();
+    }
+
+    private String datasetKey() {
+        return filename + "|" + fileEncoding + "|" + delimiter + "|" + variableNames + "|" + ignoreFirstLine + "|" + weightColumn;
+    }
+
+    private Dataset load() {
+        File file = FileServer.getFileServer().getResolvedFile(filename);
+        Charset charset = fileEncoding == null || fileEncoding.isEmpty() ? StandardCharsets.UTF_8 : Charset.forName(fileEncoding);
+        char separator = "\\t".equals(delimiter) ? '\t' : (delimiter == null || delimiter.isEmpty() ? ',' : delimiter.charAt(0));
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file.toPath(), charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read dataset " + file.getAbsolutePath(), e);
+        }
+
+        // Like CSV Data Set Config: without variable names the first line is the header
+        boolean headerInFile = variableNames == null || variableNames.trim().isEmpty();
+        String[] names = headerInFile ? Csv.split(lines.get(0), separator) : variableNames.trim().split("\\s*,\\s*");
+        int firstRow = headerInFile || ignoreFirstLine ? 1 : 0;
+
+        List<String[]> rows = new ArrayList<>(lines.size());
+        for (int i = firstRow; i < lines.size(); i++) {
+            if (!lines.get(i).isEmpty()) {
+                rows.add(Csv.split(lines.get(i), separator));
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("Dataset has no rows: " + file.getAbsolutePath());
+        }
+
+        Dataset dataset = new Dataset(names, rows.toArray(new String[0][]));
+        if (MODE_WEIGHTED.equals(getMode())) {
+            dataset.buildWeights(Arrays.asList(names).indexOf(weightColumn), weightColumn);
+        }
+        logger.info("Dataset loaded: " + file.getName() + " (" + rows.size() + " rows, variables "
+                + Arrays.toString(names) + ", mode " + getMode() + (perThreadCursor ? ", per-thread cursor" : "") + ")");
+        return dataset;
+    }
+
+    @Override
+    public void testStarted() {
+        datasets.clear();
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    @Override
+    public void testEnded() {
+        datasets.clear();
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
+    /**
+     * Immutable rows plus the shared cursor and cumulative weights
+     */
+    private static class Dataset {
+        private final String[] names;
+        private final String[][] rows;
+        private final AtomicLong cursor = new AtomicLong();
+        private double[] cumulativeWeights;
+
+        Dataset(String[] names, String[][] rows) {
+            this.names = names;
+            this.rows = rows;
+        }
+
+        void buildWeights(int column, String columnName) {
+            if (column < 0) {
+                throw new IllegalArgumentException("Weight column not found in dataset: " + columnName);
+            }
+            cumulativeWeights = new double[rows.length];
+            double total = 0;
+            for (int i = 0; i < rows.length; i++) {
+                total += column < rows[i].length ? Math.max(0, Double.parseDouble(rows[i][column].trim())) : 0;
+                cumulativeWeights[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Weight column has no positive weights: " + columnName);
+            }
+        }
+
+        int pickWeighted(double uniform) {
+            double target = uniform * cumulativeWeights[cumulativeWeights.length - 1];
+            int index = Arrays.binarySearch(cumulativeWeights, target);
+            if (index < 0) {
+                // (-insertionPoint - 1): the first row whose cumulative weight exceeds the target
+                return -index - 1;
+            }
+            // Exact hit on a boundary belongs to the next row with a positive weight
+            while (index < rows.length - 1 && cumulativeWeights[index] <= target) {
+                index++;
+            }
+            return index;
+        }
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getFileEncoding() {
+        return fileEncoding;
+    }
+
+    public void setFileEncoding(String fileEncoding) {
+        this.fileEncoding = fileEncoding;
+    }
+
+    public String getVariableNames() {
+        return variableNames;
+    }
+
+    public void setVariableNames(String variableNames) {
+        this.variableNames = variableNames;
+    }
+
+    public boolean isIgnoreFirstLine() {
+        return ignoreFirstLine;
+    }
+
+    public void setIgnoreFirstLine(boolean ignoreFirstLine) {
+        this.ignoreFirstLine = ignoreFirstLine;
+    }
+
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(String delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public String getSelectionMode() {
+        return selectionMode;
+    }
+
+    public void setSelectionMode(String selectionMode) {
+        this.selectionMode = selectionMode;
+    }
+
+    public String getWeightColumn() {
+        return weightColumn;
+    }
+
+    public void setWeightColumn(String weightColumn) {
+        this.weightColumn = weightColumn;
+    }
+
+    public boolean isPerThreadCursor() {
+        return perThreadCursor;
+    }
+
+    public void setPerThreadCursor(boolean perThreadCursor) {
+        this.perThreadCursor = perThreadCursor;
+    }
+
+    public boolean getRecycle() {
+        return recycle;
+    }
+
+    public void setRecycle(boolean recycle) {
+        this.recycle = recycle;
+    }
+
+    public boolean getStopThread() {
+        return stopThread;
+    }
+
+    public void setStopThread(boolean stopThread) {
+        this.stopThread = stopThread;
+    }
+}
@@ -0,0 +1,66 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+import org.apache.jmeter.testbeans.gui.FileEditor;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link DatasetFeeder}, labels are in DatasetFeederResources.properties
+ */
+public class DatasetFeederBeanInfo extends BeanInfoSupport {
+
+    public DatasetFeederBeanInfo() {
+        super(DatasetFeeder.class);
+
+        createPropertyGroup("dataset", new String[]{"filename", "fileEncoding", "variableNames", "ignoreFirstLine", "delimiter"});
+        createPropertyGroup("selection", new String[]{"selectionMode", "weightColumn", "perThreadCursor", "recycle", "stopThread"});
+
+        PropertyDescriptor p = property("filename");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+        p.setPropertyEditorClass(FileEditor.class);
+
+        p = property("fileEncoding");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "UTF-8");
+
+        p = property("variableNames");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+
+        p = property("ignoreFirstLine");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+
+        p = property("delimiter");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, ",");
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+
+        p = property("selectionMode");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, DatasetFeeder.MODE_SEQUENTIAL);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+        p.setValue(TAGS, new String[]{DatasetFeeder.MODE_SEQUENTIAL, DatasetFeeder.MODE_RANDOM, DatasetFeeder.MODE_WEIGHTED});
+
+        p = property("weightColumn");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("perThreadCursor");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+
+        p = property("recycle");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.TRUE);
+
+        p = property("stopThread");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+    }
+}
@@ -0,0 +1,337 @@
+package com.iskender.load;
+
+import com.iskender.utils.Csv;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps failed samples inspectable in long, high-volume runs without the memory of a View Results
+ * Tree. Every failure is classified by signature: response code, names of the failed assertions
+ * and, for samples without an HTTP response, the exception type. All failures are counted per
+ * class, but only a uniform random sample of reservoirSize failures per class (reservoir sampling)
+ * is kept, as one text file per failure with the full request and response, body cut at
+ * maxBodyBytes. Disk use is bounded by classes x reservoirSize x body size, memory by the counters.
+ *
+ * Files go to directory/&lt;class&gt;/sample-&lt;slot&gt;.txt; failures.csv next to them lists the classes
+ * with counts, share of all failures, labels, first and last occurrence when the test ends.
+ * Failed transactions are broken down into their failing requests.
+ */
+public class FailureReservoir extends AbstractTestElement
+        implements Serializable, SampleListener, TestStateListener, TestBean {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(FailureReservoir.class);
+
+    private static final String DIRECTORY = "directory";
+    private static final String SUMMARY_FILE = "failures.csv";
+    private static final String SAMPLE_PREFIX = "sample-";
+
+    private static final Map<String, FailureClass> classes = new ConcurrentHashMap<>();
+
+    private transient String directory;
+    private transient int reservoirSize;
+    private transient int maxBodyBytes;
+
+    @Override
+    public void sampleOccurred(SampleEvent event) {
+        // Samples of a transaction without parent sample were already reported one by one
+        if (event.isTransactionSampleEvent()) {
+            return;
+        }
+        SampleResult result = event.getResult();
+        if (result.isSuccessful()) {
+            return;
+        }
+        List<SampleResult> failures = new ArrayList<>();
+        collectFailures(result, failures);
+        for (SampleResult failure : failures) {
+            String signature = signature(failure);
+            classes.computeIfAbsent(signature, FailureClass::new).add(failure, this);
+        }
+    }
+
+    /**
+     * A failed sample without failed assertions of its own, like a transaction, stands for its failed sub-results
+     */
+    private static void collectFailures(SampleResult result, List<SampleResult> failures) {
+        List<SampleResult> failedChildren = new ArrayList<>();
+        for (SampleResult subResult : result.getSubResults()) {
+            if (!subResult.isSuccessful()) {
+                failedChildren.add(subResult);
+            }
+        }
+        if (failedChildren.isEmpty() || failedAssertions(result).length() > 0) {
+            failures.add(result);
+            return;
+        }
+        for (SampleResult child : failedChildren) {
+            collectFailures(child, failures);
+        }
+    }
+
+    private static String signature(SampleResult result) {
+        String code = result.getResponseCode();
+        String exception = "";
+        // JMeter reports exceptions as "Non HTTP response code: java.net.SocketTimeoutException"
+        String prefix = "Non HTTP response code: ";
+        if (code.startsWith(prefix)) {
+            exception = code.substring(prefix.length());
+            code = "Non HTTP";
+        }
+        String assertions = failedAssertions(result);
+        return (code.isEmpty() ? "-" : code) + " | " + (assertions.isEmpty() ? "-" : assertions)
+                + " | " + (exception.isEmpty() ? "-" : exception);
+    }
+
+    private static String failedAssertions(SampleResult result) {
+        Set<String> names = new TreeSet<>();
+        for (AssertionResult assertion : result.getAssertionResults()) {
+            if (assertion.isFailure() || assertion.isError()) {
+                names.add(assertion.getName());
+            }
+        }
+        return String.join(", ", names);
+    }
+
+    @Override
+    public void sampleStarted(SampleEvent event) {
+        // Not used
+    }
+
+    @Override
+    public void sampleStopped(SampleEvent event) {
+        // Not used
+    }
+
+    @Override
+    public void testStarted() {
+        classes.clear();
+        // Called on the element in the test plan, which is not prepared like thread clones are
+        Path root = Paths.get(directoryOrDefault(getPropertyAsString(DIRECTORY)));
+        try {
+            clearPreviousRun(root);
+        } catch (IOException e) {
+            logger.warn("Failed to clear failure samples of the previous run in " + root + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes only what an earlier run wrote, in case the directory is shared
+     */
+    private static void clearPreviousRun(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Files.deleteIfExists(root.resolve(SUMMARY_FILE));
+        try (DirectoryStream<Path> classDirectories = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path classDirectory : classDirectories) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(classDirectory, SAMPLE_PREFIX + "*.txt")) {
+                    for (Path file : files) {
+                        Files.delete(file);
+                    }
+                }
+                boolean empty;
+                try (DirectoryStream<Path> rest = Files.newDirectoryStream(classDirectory)) {
+                    empty = !rest.iterator().hasNext();
+                }
+                if (empty) {
+                    Files.delete(classDirectory);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    @Override
+    public void testEnded() {
+        if (classes.isEmpty()) {
+            return;
+        }
+        Path root = Paths.get(directoryOrDefault(getPropertyAsString(DIRECTORY)));
+        List<FailureClass> sorted = new ArrayList<>(classes.values());
+        sorted.sort((a, b) -> Long.compare(b.count.sum(), a.count.sum()));
+        long total = sorted.stream().mapToLong(failureClass -> failureClass.count.sum()).sum();
+        try {
+            Files.createDirectories(root);
+            try (PrintWriter writer = new PrintWriter(root.resolve(SUMMARY_FILE).toFile(), StandardCharsets.UTF_8.name())) {
+                writer.println("signature,count,pct_of_failures,captured,labels,first_seen,last_seen,directory");
+                for (FailureClass failureClass : sorted) {
+                    writer.println(failureClass.toCsv(total));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write failure summary to " + root + ": " + e.getMessage());
+            return;
+        }
+        logger.info("Failure samples written to " + root.toAbsolutePath());
+        for (FailureClass failureClass : sorted) {
+            logger.info(failureClass.summary(total));
+        }
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
+    private static String directoryOrDefault(String directory) {
+        return directory == null || directory.isEmpty() ? "failures" : directory;
+    }
+
+    /**
+     * Counters and reservoir of one signature
+     */
+    private static class FailureClass {
+        private final String signature;
+        private final String directoryName;
+        private final LongAdder count = new LongAdder();
+        private final Set<String> labels = ConcurrentHashMap.newKeySet();
+        private final LongAccumulator firstSeen = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator lastSeen = new LongAccumulator(Math::max, 0);
+        // Failures offered to the reservoir, guarded by this
+        private long offered;
+        private int captured;
+
+        FailureClass(String signature) {
+            this.signature = signature;
+            // Readable and file system safe, the hash keeps signatures that clean up alike apart
+            String readable = signature.replaceAll("[^A-Za-z0-9.]+", "_").replaceAll("^_|_$", "");
+            this.directoryName = (readable.length() > 60 ? readable.substring(0, 60) : readable)
+                    + "-" + Integer.toHexString(signature.hashCode());
+        }
+
+        void add(SampleResult failure, FailureReservoir settings) {
+            count.increment();
+            labels.add(failure.getSampleLabel());
+            firstSeen.accumulate(failure.getTimeStamp());
+            lastSeen.accumulate(failure.getTimeStamp());
+
+            int size = Math.max(1, settings.getReservoirSize());
+            int slot;
+            synchronized (this) {
+                offered++;
+                // Algorithm R: the n-th failure replaces a random slot with probability size / n
+                slot = offered <= size ? (int) offered - 1 : (int) ThreadLocalRandom.current().nextLong(offered);
+                if (slot >= size) {
+                    return;
+                }
+                captured = (int) Math.min(offered, size);
+                // Written while holding the lock so a slot cannot be overwritten by an older failure
+                write(failure, slot, settings);
+            }
+        }
+
+        private void write(SampleResult failure, int slot, FailureReservoir settings) {
+            Path classDirectory = Paths.get(directoryOrDefault(settings.getDirectory())).resolve(directoryName);
+            try {
+                Files.createDirectories(classDirectory);
+                Path file = classDirectory.resolve(SAMPLE_PREFIX + slot + ".txt");
+                try (PrintWriter writer = new PrintWriter(file.toFile(), StandardCharsets.UTF_8.name())) {
+                    writer.println("Signature: " + signature);
+                    writer.println("Label: " + failure.getSampleLabel());
+                    writer.println("Thread: " + failure.getThreadName());
+                    writer.println("Time: " + Instant.ofEpochMilli(failure.getTimeStamp()) + " (" + failure.getTimeStamp() + ")");
+                    writer.println("Elapsed: " + failure.getTime() + " ms, latency " + failure.getLatency()
+                            + " ms, connect " + failure.getConnectTime() + " ms");
+                    writer.println("URL: " + failure.getUrlAsString());
+                    for (AssertionResult assertion : failure.getAssertionResults()) {
+                        if (assertion.isFailure() || assertion.isError()) {
+                            writer.println("Assertion: " + assertion.getName() + ": " + assertion.getFailureMessage());
+                        }
+                    }
+                    writer.println();
+                    writer.println("---- Request ----");
+                    writer.println(failure.getSamplerData());
+                    writer.println(failure.getRequestHeaders());
+                    writer.println();
+                    writer.println("---- Response ----");
+                    writer.println(failure.getResponseCode() + " " + failure.getResponseMessage());
+                    writer.println(failure.getResponseHeaders());
+                    writer.println(body(failure, settings.getMaxBodyBytes()));
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to write failure sample to " + classDirectory + ": " + e.getMessage());
+            }
+        }
+
+        private static String body(SampleResult failure, int maxBodyBytes) {
+            byte[] data = failure.getResponseData();
+            int length = maxBodyBytes > 0 ? Math.min(data.length, maxBodyBytes) : data.length;
+            Charset charset;
+            try {
+                charset = Charset.forName(failure.getDataEncodingWithDefault());
+            } catch (RuntimeException e) {
+                charset = StandardCharsets.UTF_8;
+            }
+            String body = new String(data, 0, length, charset);
+            return length < data.length ? body + "\n[" + (data.length - length) + " more bytes cut]" : body;
+        }
+
+        synchronized String toCsv(long total) {
+            return String.format(Locale.ROOT, "%s,%d,%.3f,%d,%s,%s,%s,%s", Csv.value(signature), count.sum(),
+                    total == 0 ? 0.0 : 100.0 * count.sum() / total, captured, Csv.value(String.join(" / ", new TreeSet<>(labels))),
+                    Instant.ofEpochMilli(firstSeen.get()), Instant.ofEpochMilli(lastSeen.get()), directoryName);
+        }
+
+        synchronized String summary(long total) {
+            return String.format(Locale.ROOT, "%s: %d failures (%.1f%% of %d), %d kept in %s", signature,
+                    count.sum(), total == 0 ? 0.0 : 100.0 * count.sum() / total, total, captured, directoryName);
+        }
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getReservoirSize() {
+        return reservoirSize;
+    }
+
+    public void setReservoirSize(int reservoirSize) {
+        this.reservoirSize = reservoirSize;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+}
@@ -0,0 +1,29 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link FailureReservoir}, labels are in FailureReservoirResources.properties
+ */
+public class FailureReservoirBeanInfo extends BeanInfoSupport {
+
+    public FailureReservoirBeanInfo() {
+        super(FailureReservoir.class);
+
+        createPropertyGroup("capture", new String[]{"directory", "reservoirSize", "maxBodyBytes"});
+
+        PropertyDescriptor p = property("directory");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "failures");
+
+        p = property("reservoirSize");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 20);
+
+        p = property("maxBodyBytes");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 65536);
+    }
+}
@@ -0,0 +1,497 @@
+package com.iskender.load;
+
+import com.iskender.utils.Csv;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.apache.jmeter.processor.PostProcessor;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Watches the load generator JVM during a run so long-run latencies can be trusted. Every
+ * intervalSeconds it samples heap, live heap after the last GC, GC pause time, JVM and JMeter
+ * thread counts, open file descriptors and sockets, and process / system CPU, and writes one CSV
+ * row per interval to reportFile.
+ *
+ * An interval is marked generator-bound when the generator itself was the likely bottleneck:
+ * process or system CPU, GC pause share or live heap above their limits. As a post-processor at
+ * test plan level it stores the mark of the last completed interval in the generator_bound
+ * variable, so the JTL carries it through sample_variables (lagging by at most one interval).
+ *
+ * When the test ends, least-squares trends of live heap, threads, descriptors and sockets after
+ * the warm-up are checked for leaks: a metric is flagged when its slope is significant (t > 3)
+ * and it grew by more than leakThreshold over the run. The trends and the generator-bound
+ * intervals are written to summaryFile and logged.
+ */
+public class GeneratorHealthMonitor extends AbstractTestElement
+        implements Serializable, PostProcessor, TestStateListener, TestBean {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(GeneratorHealthMonitor.class);
+
+    private static final String CSV_HEADER = "interval_end,heap_used_mb,heap_max_mb,live_heap_mb,gc_pause_ms,gc_max_pause_ms,"
+            + "gc_pause_pct,jvm_threads,jmeter_threads,open_fds,sockets,process_cpu_pct,system_cpu_pct,generator_bound,reasons";
+
+    // One monitor per JVM: the sampling thread and the intervals belong to the running test
+    private static volatile ScheduledExecutorService scheduler;
+    private static final List<Interval> intervals = new ArrayList<>();
+    private static volatile boolean lastIntervalBound;
+
+    private static final LongAdder gcPauseMs = new LongAdder();
+    private static final LongAccumulator gcMaxPauseMs = new LongAccumulator(Math::max, 0);
+    private static volatile double liveHeapMb = Double.NaN;
+    private static final NotificationListener gcListener = GeneratorHealthMonitor::gcOccurred;
+
+    private transient int intervalSeconds;
+    private transient int warmupSeconds;
+    private transient String reportFile;
+    private transient String summaryFile;
+    private transient double maxProcessCpu;
+    private transient double maxSystemCpu;
+    private transient double maxGcPause;
+    private transient double maxLiveHeap;
+    private transient double leakThreshold;
+
+    @Override
+    public void process() {
+        JMeterContextService.getContext().getVariables().put("generator_bound", String.valueOf(lastIntervalBound));
+    }
+
+    @Override
+    public void testStarted() {
+        // Called on the element in the test plan, which is not prepared like thread clones are
+        int seconds = Math.max(1, getPropertyAsInt("intervalSeconds", 10));
+        synchronized (intervals) {
+            intervals.clear();
+        }
+        lastIntervalBound = false;
+        gcPauseMs.reset();
+        gcMaxPauseMs.reset();
+        liveHeapMb = Double.NaN;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(gcListener, null, null);
+            }
+        }
+        Limits limits = new Limits(this);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generator-health-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> sample(seconds, limits), seconds, seconds, TimeUnit.SECONDS);
+        logger.info("Generator health sampled every " + seconds + " s");
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    @Override
+    public void testEnded() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException e) {
+                    // Not registered, nothing to remove
+                }
+            }
+        }
+        List<Interval> snapshot;
+        synchronized (intervals) {
+            snapshot = new ArrayList<>(intervals);
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        writeReport(snapshot);
+        writeSummary(snapshot);
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
+    private static void gcOccurred(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        // Concurrent cycles (G1 Concurrent GC, ZGC Cycles) run next to the application, they are not pauses
+        String name = info.getGcName();
+        if (!name.contains("Concurrent") && !name.contains("Cycles")) {
+            gcPauseMs.add(info.getGcInfo().getDuration());
+            gcMaxPauseMs.accumulate(info.getGcInfo().getDuration());
+        }
+        long live = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = info.getGcInfo().getMemoryUsageAfterGc().get(pool.getName());
+            // Heap pools only, metaspace and code cache grow while classes load and code is compiled
+            if (usage != null && pool.getType() == MemoryType.HEAP) {
+                live += usage.getUsed();
+            }
+        }
+        liveHeapMb = live / (1024.0 * 1024.0);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void sample(int seconds, Limits limits) {
+        try {
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            Interval interval = new Interval();
+            interval.timeStamp = System.currentTimeMillis();
+            interval.heapUsedMb = heap.getUsed() / (1024.0 * 1024.0);
+            interval.heapMaxMb = heap.getMax() / (1024.0 * 1024.0);
+            interval.liveHeapMb = liveHeapMb;
+            interval.gcPauseMs = gcPauseMs.sumThenReset();
+            interval.gcMaxPauseMs = gcMaxPauseMs.getThenReset();
+            interval.gcPausePct = 100.0 * interval.gcPauseMs / (seconds * 1000.0);
+            interval.jvmThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+            interval.jmeterThreads = JMeterContextService.getNumberOfThreads();
+            interval.openFds = os instanceof UnixOperatingSystemMXBean ? ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount() : -1;
+            interval.sockets = countSockets();
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                // Load over all cores, negative while not yet available
+                interval.processCpuPct = 100.0 * ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+                interval.systemCpuPct = 100.0 * ((com.sun.management.OperatingSystemMXBean) os).getSystemCpuLoad();
+            }
+            interval.classify(limits);
+            lastIntervalBound = interval.generatorBound;
+            synchronized (intervals) {
+                intervals.add(interval);
+            }
+            if (interval.generatorBound) {
+                logger.warn("Load generator is the bottleneck: " + interval.reasons);
+            }
+        } catch (RuntimeException e) {
+            // Keep sampling, a failed reading must not stop the scheduler
+            logger.warn("Generator health sample failed: " + e);
+        }
+    }
+
+    /**
+     * Sockets among the open descriptors, Linux only; -1 elsewhere
+     */
+    private static long countSockets() {
+        Path fds = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(fds)) {
+            return -1;
+        }
+        long sockets = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(fds)) {
+            for (Path entry : entries) {
+                try {
+                    if (Files.readSymbolicLink(entry).toString().startsWith("socket:")) {
+                        sockets++;
+                    }
+                } catch (IOException e) {
+                    // Closed while listing
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return sockets;
+    }
+
+    /**
+     * Thresholds read once from the test plan element
+     */
+    private static class Limits {
+        private final double maxProcessCpuPct;
+        private final double maxSystemCpuPct;
+        private final double maxGcPausePct;
+        private final double maxLiveHeapPct;
+
+        Limits(GeneratorHealthMonitor monitor) {
+            this.maxProcessCpuPct = percent(monitor, "maxProcessCpu", 0.80);
+            this.maxSystemCpuPct = percent(monitor, "maxSystemCpu", 0.90);
+            this.maxGcPausePct = percent(monitor, "maxGcPause", 0.05);
+            this.maxLiveHeapPct = percent(monitor, "maxLiveHeap", 0.85);
+        }
+
+        private static double percent(GeneratorHealthMonitor monitor, String name, double defaultValue) {
+            String value = monitor.getPropertyAsString(name);
+            return 100.0 * (value.isEmpty() ? defaultValue : Double.parseDouble(value));
+        }
+    }
+
+    private static class Interval {
+        private long timeStamp;
+        private double heapUsedMb;
+        private double heapMaxMb;
+        private double liveHeapMb;
+        private long gcPauseMs;
+        private long gcMaxPauseMs;
+        private double gcPausePct;
+        private long jvmThreads;
+        private long jmeterThreads;
+        private long openFds;
+        private long sockets;
+        private double processCpuPct = -1;
+        private double systemCpuPct = -1;
+        private boolean generatorBound;
+        private String reasons = "";
+
+        void classify(Limits limits) {
+            List<String> found = new ArrayList<>();
+            if (processCpuPct >= limits.maxProcessCpuPct) {
+                found.add(String.format(Locale.ROOT, "process cpu %.0f%%", processCpuPct));
+            }
+            if (systemCpuPct >= limits.maxSystemCpuPct) {
+                found.add(String.format(Locale.ROOT, "system cpu %.0f%%", systemCpuPct));
+            }
+            if (gcPausePct >= limits.maxGcPausePct) {
+                found.add(String.format(Locale.ROOT, "gc pauses %.1f%% (max %d ms)", gcPausePct, gcMaxPauseMs));
+            }
+            if (heapMaxMb > 0 && !Double.isNaN(liveHeapMb) && 100.0 * liveHeapMb / heapMaxMb >= limits.maxLiveHeapPct) {
+                found.add(String.format(Locale.ROOT, "live heap %.0f of %.0f MB", liveHeapMb, heapMaxMb));
+            }
+            generatorBound = !found.isEmpty();
+            reasons = String.join("; ", found);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%d,%.1f,%.1f,%s,%d,%d,%.2f,%d,%d,%d,%d,%.1f,%.1f,%b,%s", timeStamp,
+                    heapUsedMb, heapMaxMb, Double.isNaN(liveHeapMb) ? "" : String.format(Locale.ROOT, "%.1f", liveHeapMb),
+                    gcPauseMs, gcMaxPauseMs, gcPausePct, jvmThreads, jmeterThreads, openFds, sockets, processCpuPct,
+                    systemCpuPct, generatorBound, Csv.value(reasons));
+        }
+    }
+
+    private void writeReport(List<Interval> snapshot) {
+        String file = fileProperty("reportFile", "generator_health.csv");
+        try (PrintWriter writer = new PrintWriter(new File(file), StandardCharsets.UTF_8.name())) {
+            writer.println(CSV_HEADER);
+            snapshot.forEach(interval -> writer.println(interval.toCsv()));
+        } catch (IOException e) {
+            logger.error("Failed to write generator health report " + file + ": " + e.getMessage());
+            return;
+        }
+        logger.info("Generator health written to " + new File(file).getAbsolutePath());
+    }
+
+    private void writeSummary(List<Interval> snapshot) {
+        long warmupMs = getPropertyAsInt("warmupSeconds", 300) * 1000L;
+        double threshold = getPropertyAsString("leakThreshold").isEmpty() ? 0.10 : getPropertyAsDouble("leakThreshold");
+        long start = snapshot.get(0).timeStamp;
+        List<Interval> steady = new ArrayList<>();
+        for (Interval interval : snapshot) {
+            if (interval.timeStamp - start >= warmupMs) {
+                steady.add(interval);
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Load Generator Health");
+        lines.add("");
+        lines.add(String.format(Locale.ROOT, "%d intervals, trends over %d after %d s warm-up.",
+                snapshot.size(), steady.size(), warmupMs / 1000));
+        lines.add("");
+        lines.add("| Metric | Start | End | Growth | Slope per hour | t | Verdict |");
+        lines.add("|---|---|---|---|---|---|---|");
+        List<String> leaks = new ArrayList<>();
+        trend(steady, "Live heap MB", interval -> interval.liveHeapMb, threshold, lines, leaks);
+        trend(steady, "JVM threads", interval -> interval.jvmThreads, threshold, lines, leaks);
+        trend(steady, "Open descriptors", interval -> interval.openFds, threshold, lines, leaks);
+        trend(steady, "Sockets", interval -> interval.sockets, threshold, lines, leaks);
+
+        lines.add("");
+        List<String> bound = new ArrayList<>();
+        long intervalMs = getPropertyAsInt("intervalSeconds", 10) * 1000L;
+        for (Interval interval : snapshot) {
+            if (interval.generatorBound) {
+                bound.add(String.format(Locale.ROOT, "| %d | %d | %s |", interval.timeStamp - intervalMs, interval.timeStamp, interval.reasons));
+            }
+        }
+        if (bound.isEmpty()) {
+            lines.add("No interval was generator-bound.");
+        } else {
+            lines.add(String.format(Locale.ROOT, "**%d of %d intervals were generator-bound**; latencies of samples in "
+                    + "these ranges (JTL timeStamp) reflect the generator, not the server:", bound.size(), snapshot.size()));
+            lines.add("");
+            lines.add("| From | To | Reasons |");
+            lines.add("|---|---|---|");
+            lines.addAll(bound);
+        }
+
+        String file = fileProperty("summaryFile", "generator_health.md");
+        try {
+            Files.write(Paths.get(file), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to write generator health summary " + file + ": " + e.getMessage());
+        }
+        if (!leaks.isEmpty()) {
+            logger.error("Load generator leak suspected: " + String.join(", ", leaks));
+        }
+        if (!bound.isEmpty()) {
+            logger.warn(bound.size() + " of " + snapshot.size() + " intervals were generator-bound, see " + file);
+        }
+    }
+
+    /**
+     * Least-squares line through the metric over time; negative values (not available) are skipped
+     */
+    private static void trend(List<Interval> steady, String metric, ToDoubleFunction<Interval> value, double threshold,
+                              List<String> lines, List<String> leaks) {
+        List<double[]> points = new ArrayList<>();
+        for (Interval interval : steady) {
+            double y = value.applyAsDouble(interval);
+            if (!Double.isNaN(y) && y >= 0) {
+                points.add(new double[]{(interval.timeStamp - steady.get(0).timeStamp) / 3_600_000.0, y});
+            }
+        }
+        if (points.size() < 3) {
+            lines.add("| " + metric + " | | | | | | not enough data |");
+            return;
+        }
+        int n = points.size();
+        double meanX = points.stream().mapToDouble(p -> p[0]).average().orElse(0);
+        double meanY = points.stream().mapToDouble(p -> p[1]).average().orElse(0);
+        double sxx = 0;
+        double sxy = 0;
+        for (double[] p : points) {
+            sxx += (p[0] - meanX) * (p[0] - meanX);
+            sxy += (p[0] - meanX) * (p[1] - meanY);
+        }
+        double slope = sxx == 0 ? 0 : sxy / sxx;
+        double intercept = meanY - slope * meanX;
+        double residuals = 0;
+        for (double[] p : points) {
+            double error = p[1] - (intercept + slope * p[0]);
+            residuals += error * error;
+        }
+        double standardError = n > 2 && sxx > 0 ? Math.sqrt(residuals / (n - 2) / sxx) : 0;
+        // A perfectly straight line has no residuals, count any growth as significant then
+        double t = standardError == 0 ? (slope > 0 ? Double.POSITIVE_INFINITY : 0) : slope / standardError;
+        double first = intercept + slope * points.get(0)[0];
+        double last = intercept + slope * points.get(n - 1)[0];
+        double growth = (last - first) / Math.max(Math.abs(first), 1.0);
+        boolean leak = t > 3 && growth > threshold;
+        if (leak) {
+            leaks.add(String.format(Locale.ROOT, "%s +%.0f%%", metric, growth * 100));
+        }
+        lines.add(String.format(Locale.ROOT, "| %s | %.1f | %.1f | %+.1f%% | %+.2f | %.1f | %s |", metric, first, last,
+                growth * 100, slope, t, leak ? "**leak suspected**" : "ok"));
+    }
+
+    private String fileProperty(String name, String defaultValue) {
+        String file = getPropertyAsString(name);
+        return file.isEmpty() ? defaultValue : file;
+    }
+
+    public int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public String getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(String reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    public String getSummaryFile() {
+        return summaryFile;
+    }
+
+    public void setSummaryFile(String summaryFile) {
+        this.summaryFile = summaryFile;
+    }
+
+    public double getMaxProcessCpu() {
+        return maxProcessCpu;
+    }
+
+    public void setMaxProcessCpu(double maxProcessCpu) {
+        this.maxProcessCpu = maxProcessCpu;
+    }
+
+    public double getMaxSystemCpu() {
+        return maxSystemCpu;
+    }
+
+    public void setMaxSystemCpu(double maxSystemCpu) {
+        this.maxSystemCpu = maxSystemCpu;
+    }
+
+    public double getMaxGcPause() {
+        return maxGcPause;
+    }
+
+    public void setMaxGcPause(double maxGcPause) {
+        this.maxGcPause = maxGcPause;
+    }
+
+    public double getMaxLiveHeap() {
+        return maxLiveHeap;
+    }
+
+    public void setMaxLiveHeap(double maxLiveHeap) {
+        this.maxLiveHeap = maxLiveHeap;
+    }
+
+    public double getLeakThreshold() {
+        return leakThreshold;
+    }
+
+    public void setLeakThreshold(double leakThreshold) {
+        this.leakThreshold = leakThreshold;
+    }
+}
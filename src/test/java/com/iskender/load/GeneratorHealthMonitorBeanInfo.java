@@ -0,0 +1,55 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link GeneratorHealthMonitor}, labels are in GeneratorHealthMonitorResources.properties
+ */
+public class GeneratorHealthMonitorBeanInfo extends BeanInfoSupport {
+
+    public GeneratorHealthMonitorBeanInfo() {
+        super(GeneratorHealthMonitor.class);
+
+        createPropertyGroup("sampling", new String[]{"intervalSeconds", "warmupSeconds"});
+        createPropertyGroup("limits", new String[]{"maxProcessCpu", "maxSystemCpu", "maxGcPause", "maxLiveHeap", "leakThreshold"});
+        createPropertyGroup("report", new String[]{"reportFile", "summaryFile"});
+
+        PropertyDescriptor p = property("intervalSeconds");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 10);
+
+        p = property("warmupSeconds");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 300);
+
+        p = property("maxProcessCpu");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0.80);
+
+        p = property("maxSystemCpu");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0.90);
+
+        p = property("maxGcPause");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0.05);
+
+        p = property("maxLiveHeap");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0.85);
+
+        p = property("leakThreshold");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 0.10);
+
+        p = property("reportFile");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "generator_health.csv");
+
+        p = property("summaryFile");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "generator_health.md");
+    }
+}
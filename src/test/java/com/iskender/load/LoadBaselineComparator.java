@@ -0,0 +1,425 @@
+package com.iskender.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.iskender.utils.Csv;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compares a JMeter results file (CSV JTL) with a stored baseline and fails when a transaction's
+ * p95 / p99 response time or its error rate regressed. Response times are kept per label in
+ * log-linear histograms (exact below 128 ms, 1% buckets above), which is also the baseline format.
+ *
+ * A percentile only counts as regressed when its relative increase exceeds the threshold and the
+ * bootstrap confidence interval of the difference lies above zero; the error rate likewise needs a
+ * significant increase beyond its threshold. Labels with fewer than --min-samples samples on
+ * either side are reported but not gated. Without a baseline file the results are recorded as the
+ * first baseline with a warning, and nothing is gated.
+ *
+ * Runs in the verify phase through exec-maven-plugin (mvn exec:java@load-baseline for a manual run).
+ * Arguments: [--results=target/jmeter/results/N11_Search_LoadTest.csv] [--baseline=.../N11_Search_LoadTest.baseline.json]
+ *        [--update-baseline=false] [--max-p95-regression=0.20] [--max-p99-regression=0.30]
+ *        [--max-error-rate-increase=0.01] [--confidence=0.95] [--bootstrap=2000] [--min-samples=30]
+ *        [--report=target/jmeter/results/baseline-comparison.md]
+ */
+public class LoadBaselineComparator {
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final int EXACT_LIMIT_MS = 128;
+    private static final double BUCKET_GROWTH = 1.01;
+
+    private final double maxP95Regression;
+    private final double maxP99Regression;
+    private final double maxErrorRateIncrease;
+    private final double confidence;
+    private final int bootstrapRounds;
+    private final long minSamples;
+    private final Random random = new Random(42);
+
+    public LoadBaselineComparator(double maxP95Regression, double maxP99Regression, double maxErrorRateIncrease,
+                                  double confidence, int bootstrapRounds, long minSamples) {
+        this.maxP95Regression = maxP95Regression;
+        this.maxP99Regression = maxP99Regression;
+        this.maxErrorRateIncrease = maxErrorRateIncrease;
+        this.confidence = confidence;
+        this.bootstrapRounds = bootstrapRounds;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Response time distribution and error count of one label
+     */
+    static class LabelStats {
+        private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+        private long samples;
+        private long errors;
+
+        void add(long elapsedMs, boolean success) {
+            buckets.merge(bucketOf(elapsedMs), 1L, Long::sum);
+            samples++;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        double errorRate() {
+            return samples == 0 ? 0.0 : (double) errors / samples;
+        }
+
+        double percentile(double p) {
+            return valueAtRank(Math.max(1, (long) Math.ceil(p * samples)));
+        }
+
+        /**
+         * @param rank 1-based position in the sorted samples
+         */
+        double valueAtRank(long rank) {
+            long seen = 0;
+            for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+                seen += bucket.getValue();
+                if (seen >= rank) {
+                    return valueOf(bucket.getKey());
+                }
+            }
+            return buckets.isEmpty() ? 0.0 : valueOf(buckets.lastKey());
+        }
+
+        ObjectNode toJson() {
+            ObjectNode node = mapper.createObjectNode();
+            node.put("samples", samples);
+            node.put("errors", errors);
+            // Percentiles are informational, comparisons use the histogram
+            node.put("p50", Math.round(percentile(0.50)));
+            node.put("p95", Math.round(percentile(0.95)));
+            node.put("p99", Math.round(percentile(0.99)));
+            ArrayNode histogram = node.putArray("histogram");
+            buckets.forEach((bucket, count) -> histogram.addArray().add(bucket).add(count));
+            return node;
+        }
+
+        static LabelStats fromJson(JsonNode node) {
+            LabelStats stats = new LabelStats();
+            stats.samples = node.path("samples").asLong();
+            stats.errors = node.path("errors").asLong();
+            for (JsonNode bucket : node.path("histogram")) {
+                stats.buckets.put(bucket.get(0).asInt(), bucket.get(1).asLong());
+            }
+            return stats;
+        }
+    }
+
+    static int bucketOf(long elapsedMs) {
+        if (elapsedMs < EXACT_LIMIT_MS) {
+            return (int) Math.max(0, elapsedMs);
+        }
+        return EXACT_LIMIT_MS + (int) Math.floor(Math.log((double) elapsedMs / EXACT_LIMIT_MS) / Math.log(BUCKET_GROWTH));
+    }
+
+    static double valueOf(int bucket) {
+        if (bucket < EXACT_LIMIT_MS) {
+            return bucket;
+        }
+        // Geometric middle of the bucket
+        return EXACT_LIMIT_MS * Math.pow(BUCKET_GROWTH, bucket - EXACT_LIMIT_MS + 0.5);
+    }
+
+    /**
+     * Reads one CSV JTL, or every JTL in a directory (other CSV files such as reports are skipped)
+     */
+    static Map<String, LabelStats> readResults(Path results) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(results)) {
+            try (Stream<Path> stream = Files.list(results)) {
+                files.addAll(stream.filter(path -> path.toString().endsWith(".csv") || path.toString().endsWith(".jtl"))
+                        .sorted().collect(Collectors.toList()));
+            }
+        } else {
+            files.add(results);
+        }
+        Map<String, LabelStats> stats = new TreeMap<>();
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String header = reader.readLine();
+                if (header == null || !header.startsWith("timeStamp,")) {
+                    continue;
+                }
+                List<String> columns = Arrays.asList(Csv.split(header, ','));
+                int label = columns.indexOf("label");
+                int elapsed = columns.indexOf("elapsed");
+                int success = columns.indexOf("success");
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] values = Csv.split(line, ',');
+                    if (values.length <= Math.max(label, Math.max(elapsed, success))) {
+                        continue;
+                    }
+                    stats.computeIfAbsent(values[label], key -> new LabelStats())
+                            .add(Long.parseLong(values[elapsed]), Boolean.parseBoolean(values[success]));
+                }
+                System.out.println("Read results " + file);
+            }
+        }
+        return stats;
+    }
+
+    static Map<String, LabelStats> readBaseline(Path baseline) throws IOException {
+        Map<String, LabelStats> stats = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> labels = mapper.readTree(baseline.toFile()).path("labels").fields();
+        while (labels.hasNext()) {
+            Map.Entry<String, JsonNode> entry = labels.next();
+            stats.put(entry.getKey(), LabelStats.fromJson(entry.getValue()));
+        }
+        return stats;
+    }
+
+    static void writeBaseline(Path baseline, Map<String, LabelStats> stats, String source) throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("createdAt", Instant.now().toString());
+        root.put("source", source);
+        root.put("histogram", "[bucket, count]; bucket = ms below " + EXACT_LIMIT_MS
+                + ", above: " + EXACT_LIMIT_MS + " + log(ms / " + EXACT_LIMIT_MS + ") / log(" + BUCKET_GROWTH + ")");
+        ObjectNode labels = root.putObject("labels");
+        stats.forEach((label, labelStats) -> labels.set(label, labelStats.toJson()));
+        if (baseline.getParent() != null) {
+            Files.createDirectories(baseline.getParent());
+        }
+        mapper.writeValue(baseline.toFile(), root);
+    }
+
+    /**
+     * Outcome of comparing one label
+     */
+    static class Comparison {
+        final String label;
+        final List<String> rows = new ArrayList<>();
+        final List<String> regressions = new ArrayList<>();
+        boolean gated = true;
+
+        Comparison(String label) {
+            this.label = label;
+        }
+    }
+
+    Comparison compare(String label, LabelStats baseline, LabelStats current) {
+        Comparison comparison = new Comparison(label);
+        comparison.gated = baseline.samples >= minSamples && current.samples >= minSamples;
+        comparePercentile(comparison, "p95", 0.95, maxP95Regression, baseline, current);
+        comparePercentile(comparison, "p99", 0.99, maxP99Regression, baseline, current);
+        compareErrorRate(comparison, baseline, current);
+        return comparison;
+    }
+
+    private void comparePercentile(Comparison comparison, String name, double p, double maxRegression,
+                                   LabelStats baseline, LabelStats current) {
+        double base = baseline.percentile(p);
+        double now = current.percentile(p);
+        double[] interval = bootstrapDifference(p, baseline, current);
+        double relative = base > 0 ? (now - base) / base : 0.0;
+        boolean regressed = comparison.gated && relative > maxRegression && interval[0] > 0;
+        comparison.rows.add(String.format(Locale.ROOT, "| %s | %s | %.0f ms | %.0f ms | %+.1f%% | [%+.0f, %+.0f] ms | %s |",
+                comparison.label, name, base, now, 100 * relative, interval[0], interval[1],
+                regressed ? "REGRESSED" : (comparison.gated ? "ok" : "not gated")));
+        if (regressed) {
+            comparison.regressions.add(String.format(Locale.ROOT, "%s %s %.0f ms -> %.0f ms (%+.1f%%, limit %+.0f%%)",
+                    comparison.label, name, base, now, 100 * relative, 100 * maxRegression));
+        }
+    }
+
+    private void compareErrorRate(Comparison comparison, LabelStats baseline, LabelStats current) {
+        double base = baseline.errorRate();
+        double now = current.errorRate();
+        double difference = now - base;
+        double standardError = Math.sqrt(base * (1 - base) / Math.max(1, baseline.samples)
+                + now * (1 - now) / Math.max(1, current.samples));
+        double z = normalQuantile(0.5 + confidence / 2);
+        double lower = difference - z * standardError;
+        boolean regressed = comparison.gated && difference > maxErrorRateIncrease && lower > 0;
+        comparison.rows.add(String.format(Locale.ROOT, "| %s | errors | %.2f%% | %.2f%% | %+.2f pp | [%+.2f, %+.2f] pp | %s |",
+                comparison.label, 100 * base, 100 * now, 100 * difference, 100 * lower, 100 * (difference + z * standardError),
+                regressed ? "REGRESSED" : (comparison.gated ? "ok" : "not gated")));
+        if (regressed) {
+            comparison.regressions.add(String.format(Locale.ROOT, "%s error rate %.2f%% -> %.2f%% (limit +%.2f pp)",
+                    comparison.label, 100 * base, 100 * now, 100 * maxErrorRateIncrease));
+        }
+    }
+
+    /**
+     * Bootstrap confidence interval of percentile(current) - percentile(baseline). The p-th
+     * percentile of a resample of n values is the value at a Beta(k, n + 1 - k) distributed
+     * quantile of the sample, so each round draws two Beta variates instead of 2n values.
+     */
+    double[] bootstrapDifference(double p, LabelStats baseline, LabelStats current) {
+        if (baseline.samples == 0 || current.samples == 0) {
+            return new double[]{0, 0};
+        }
+        double[] differences = new double[bootstrapRounds];
+        for (int i = 0; i < bootstrapRounds; i++) {
+            differences[i] = resampledPercentile(p, current) - resampledPercentile(p, baseline);
+        }
+        Arrays.sort(differences);
+        double tail = (1 - confidence) / 2;
+        return new double[]{
+                differences[(int) Math.floor(tail * (bootstrapRounds - 1))],
+                differences[(int) Math.ceil((1 - tail) * (bootstrapRounds - 1))]
+        };
+    }
+
+    private double resampledPercentile(double p, LabelStats stats) {
+        long n = stats.samples;
+        long k = Math.max(1, (long) Math.ceil(p * n));
+        double u = beta(k, n + 1 - k);
+        return stats.valueAtRank(Math.min(n, Math.max(1, (long) Math.ceil(u * n))));
+    }
+
+    private double beta(double a, double b) {
+        double x = gamma(a);
+        return x / (x + gamma(b));
+    }
+
+    /**
+     * Marsaglia-Tsang gamma variate, shape >= 1 (always the case for order statistics)
+     */
+    private double gamma(double shape) {
+        double d = shape - 1.0 / 3;
+        double c = 1 / Math.sqrt(9 * d);
+        while (true) {
+            double x = random.nextGaussian();
+            double v = 1 + c * x;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (Math.log(u) < 0.5 * x * x + d - d * v + d * Math.log(v)) {
+                return d * v;
+            }
+        }
+    }
+
+    /**
+     * Inverse of the standard normal CDF by bisection over the Abramowitz-Stegun approximation
+     */
+    static double normalQuantile(double probability) {
+        double low = -10;
+        double high = 10;
+        for (int i = 0; i < 100; i++) {
+            double middle = (low + high) / 2;
+            if (normalCdf(middle) < probability) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private static double normalCdf(double x) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(x));
+        double density = Math.exp(-x * x / 2) / Math.sqrt(2 * Math.PI);
+        double tail = density * t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        return x >= 0 ? 1 - tail : tail;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        // The JTL of the jmeter-maven-plugin run only; other JTLs in its directory, like embedded runs, are not gated
+        Path results = Paths.get(options.getOrDefault("results", "target/jmeter/results/N11_Search_LoadTest.csv"));
+        Path baselineFile = Paths.get(options.getOrDefault("baseline",
+                "src/test/java/com/iskender/tests/load/baseline/N11_Search_LoadTest.baseline.json"));
+        boolean updateBaseline = Boolean.parseBoolean(options.getOrDefault("update-baseline", "false"));
+        Path report = Paths.get(options.getOrDefault("report",
+                (Files.isDirectory(results) ? results : results.toAbsolutePath().getParent()).resolve("baseline-comparison.md").toString()));
+
+        Map<String, LabelStats> current = readResults(results);
+        if (current.isEmpty()) {
+            throw new IllegalStateException("No JMeter CSV results found in " + results.toAbsolutePath());
+        }
+        if (updateBaseline) {
+            writeBaseline(baselineFile, current, results.toString());
+            System.out.println("Baseline updated: " + baselineFile.toAbsolutePath() + " (" + current.size() + " labels)");
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            writeBaseline(baselineFile, current, results.toString());
+            System.out.println("WARNING: No baseline at " + baselineFile.toAbsolutePath() + ", recorded this run as the first"
+                    + " baseline (" + current.size() + " labels) without gating it. Commit it once the run is accepted.");
+            return;
+        }
+
+        LoadBaselineComparator comparator = new LoadBaselineComparator(
+                Double.parseDouble(options.getOrDefault("max-p95-regression", "0.20")),
+                Double.parseDouble(options.getOrDefault("max-p99-regression", "0.30")),
+                Double.parseDouble(options.getOrDefault("max-error-rate-increase", "0.01")),
+                Double.parseDouble(options.getOrDefault("confidence", "0.95")),
+                Integer.parseInt(options.getOrDefault("bootstrap", "2000")),
+                Long.parseLong(options.getOrDefault("min-samples", "30")));
+        Map<String, LabelStats> baseline = readBaseline(baselineFile);
+
+        List<String> lines = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+        lines.add("# Load Test Baseline Comparison");
+        lines.add("");
+        lines.add("Baseline: `" + baselineFile + "`, results: `" + results + "`, confidence "
+                + Math.round(comparator.confidence * 100) + "%");
+        lines.add("");
+        lines.add("| Label | Metric | Baseline | Current | Change | CI of difference | Result |");
+        lines.add("|---|---|---|---|---|---|---|");
+        for (Map.Entry<String, LabelStats> entry : current.entrySet()) {
+            LabelStats base = baseline.get(entry.getKey());
+            if (base == null) {
+                lines.add("| " + entry.getKey() + " | - | - | " + entry.getValue().samples + " samples | new label | - | not gated |");
+                continue;
+            }
+            Comparison comparison = comparator.compare(entry.getKey(), base, entry.getValue());
+            lines.addAll(comparison.rows);
+            regressions.addAll(comparison.regressions);
+        }
+        for (String label : baseline.keySet()) {
+            if (!current.containsKey(label)) {
+                lines.add("| " + label + " | - | " + baseline.get(label).samples + " samples | - | missing in results | - | not gated |");
+            }
+        }
+        lines.add("");
+        lines.add(regressions.isEmpty() ? "**No regressions.**" : "**Regressions:**");
+        regressions.forEach(regression -> lines.add("- " + regression));
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+            lines.forEach(writer::println);
+        }
+        lines.forEach(System.out::println);
+        System.out.println("Comparison report: " + report.toAbsolutePath());
+
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Load test regressed against baseline: " + String.join("; ", regressions));
+        }
+    }
+}
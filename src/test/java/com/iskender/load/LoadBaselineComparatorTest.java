@@ -0,0 +1,127 @@
+package com.iskender.load;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests of the histogram and statistics behind the load baseline gate
+ */
+public class LoadBaselineComparatorTest {
+
+    private static LoadBaselineComparator comparator() {
+        return new LoadBaselineComparator(0.20, 0.30, 0.01, 0.95, 2000, 30);
+    }
+
+    private static LoadBaselineComparator.LabelStats stats(long fromMs, long toMs) {
+        LoadBaselineComparator.LabelStats stats = new LoadBaselineComparator.LabelStats();
+        for (long elapsed = fromMs; elapsed <= toMs; elapsed++) {
+            stats.add(elapsed, true);
+        }
+        return stats;
+    }
+
+    @Test
+    public void bucketsAreExactBelowTheLimit() {
+        Assert.assertEquals(LoadBaselineComparator.bucketOf(0), 0);
+        Assert.assertEquals(LoadBaselineComparator.bucketOf(1), 1);
+        Assert.assertEquals(LoadBaselineComparator.bucketOf(127), 127);
+        Assert.assertEquals(LoadBaselineComparator.bucketOf(-5), 0, "Negative elapsed times go to the first bucket");
+        Assert.assertEquals(LoadBaselineComparator.bucketOf(128), 128);
+    }
+
+    @Test
+    public void bucketsAreMonotonicAndOnePercentWide() {
+        int previous = 0;
+        for (long elapsed = 0; elapsed <= 600_000; elapsed += elapsed < 1000 ? 1 : 97) {
+            int bucket = LoadBaselineComparator.bucketOf(elapsed);
+            Assert.assertTrue(bucket >= previous, "Bucket of " + elapsed + " ms went down");
+            previous = bucket;
+            if (elapsed >= 128) {
+                double value = LoadBaselineComparator.valueOf(bucket);
+                Assert.assertEquals(value, elapsed, elapsed * 0.01, "Bucket value of " + elapsed + " ms");
+            }
+        }
+    }
+
+    @Test
+    public void valueOfIsTheGeometricMiddleOfItsBucket() {
+        for (int bucket = 0; bucket < 128; bucket++) {
+            Assert.assertEquals(LoadBaselineComparator.valueOf(bucket), bucket, 0.0);
+        }
+        for (int bucket = 128; bucket < 1000; bucket++) {
+            double value = LoadBaselineComparator.valueOf(bucket);
+            double lower = 128 * Math.pow(1.01, bucket - 128);
+            double upper = 128 * Math.pow(1.01, bucket - 127);
+            Assert.assertEquals(value, Math.sqrt(lower * upper), 1e-9);
+            Assert.assertTrue(value > LoadBaselineComparator.valueOf(bucket - 1));
+        }
+    }
+
+    @Test
+    public void percentileUsesNearestRank() {
+        LoadBaselineComparator.LabelStats stats = stats(1, 100);
+        Assert.assertEquals(stats.percentile(0.50), 50.0);
+        Assert.assertEquals(stats.percentile(0.95), 95.0);
+        Assert.assertEquals(stats.percentile(0.99), 99.0);
+        Assert.assertEquals(stats.percentile(1.0), 100.0);
+        Assert.assertEquals(stats.percentile(0.0), 1.0, "The lowest rank is 1");
+    }
+
+    @Test
+    public void percentileOfSlowSamplesIsWithinTheBucketWidth() {
+        LoadBaselineComparator.LabelStats stats = stats(1000, 1999);
+        Assert.assertEquals(stats.percentile(0.95), 1949, 1949 * 0.01);
+        Assert.assertEquals(stats.percentile(0.99), 1989, 1989 * 0.01);
+    }
+
+    @Test
+    public void percentileOfEmptyOrSingleSample() {
+        Assert.assertEquals(new LoadBaselineComparator.LabelStats().percentile(0.95), 0.0);
+        LoadBaselineComparator.LabelStats single = new LoadBaselineComparator.LabelStats();
+        single.add(42, false);
+        Assert.assertEquals(single.percentile(0.50), 42.0);
+        Assert.assertEquals(single.percentile(0.99), 42.0);
+        Assert.assertEquals(single.errorRate(), 1.0);
+    }
+
+    @Test
+    public void percentileSurvivesTheBaselineFormat() {
+        LoadBaselineComparator.LabelStats stats = stats(50, 3000);
+        LoadBaselineComparator.LabelStats restored = LoadBaselineComparator.LabelStats.fromJson(stats.toJson());
+        Assert.assertEquals(restored.percentile(0.95), stats.percentile(0.95));
+        Assert.assertEquals(restored.percentile(0.99), stats.percentile(0.99));
+        Assert.assertEquals(restored.errorRate(), stats.errorRate());
+    }
+
+    @Test
+    public void bootstrapIntervalContainsZeroForTheSameDistribution() {
+        double[] interval = comparator().bootstrapDifference(0.95, stats(100, 1100), stats(100, 1100));
+        Assert.assertTrue(interval[0] <= 0 && interval[1] >= 0,
+                "Interval [" + interval[0] + ", " + interval[1] + "] should contain 0");
+    }
+
+    @Test
+    public void bootstrapIntervalIsAboveZeroForASlowerDistribution() {
+        LoadBaselineComparator.LabelStats baseline = stats(100, 1100);
+        LoadBaselineComparator.LabelStats slower = stats(400, 1400);
+        double[] interval = comparator().bootstrapDifference(0.95, baseline, slower);
+        double difference = slower.percentile(0.95) - baseline.percentile(0.95);
+        Assert.assertTrue(interval[0] > 0, "Lower bound " + interval[0] + " should be above 0");
+        Assert.assertTrue(interval[0] <= difference && difference <= interval[1],
+                "Interval [" + interval[0] + ", " + interval[1] + "] should contain the observed " + difference);
+    }
+
+    @Test
+    public void bootstrapIntervalNarrowsWithMoreSamples() {
+        double[] few = comparator().bootstrapDifference(0.95, stats(100, 139), stats(100, 139));
+        double[] many = comparator().bootstrapDifference(0.95, stats(100, 4099), stats(100, 4099));
+        // Relative to the spread of the samples, 40 vs 4000 of them
+        Assert.assertTrue((many[1] - many[0]) / 4000 < (few[1] - few[0]) / 40);
+    }
+
+    @Test
+    public void bootstrapWithoutSamplesIsZero() {
+        double[] interval = comparator().bootstrapDifference(0.95, new LoadBaselineComparator.LabelStats(), stats(1, 10));
+        Assert.assertEquals(interval, new double[]{0, 0});
+    }
+}
@@ -0,0 +1,281 @@
+package com.iskender.load;
+
+import org.apache.jmeter.assertions.Assertion;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replacement for a Response Assertion of type "contains" on the response body. All patterns are
+ * matched in one pass over the raw response bytes with an Aho-Corasick automaton, so the body is
+ * never decoded to a String and no regex runs per pattern. The scan stops as soon as the outcome
+ * is known. With discardBodyOnSuccess the response data of passing samples is released once the
+ * sample is complete, so only failed samples keep their body for listeners and the error log. The
+ * release happens as a sample listener, after every assertion of the sample has run: a Duration
+ * Assertion further down can still fail a sample whose patterns all matched.
+ *
+ * Patterns are literal, one per line, encoded with the configured charset. ignoreCase folds ASCII
+ * letters only; non-ASCII characters such as 'ç' must be given in the case they appear.
+ */
+public class MultiPatternAssertion extends AbstractTestElement implements Serializable, Assertion, SampleListener, TestBean {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(MultiPatternAssertion.class);
+
+    public static final String MATCH_ALL = "all";
+    public static final String MATCH_ANY = "any";
+
+    private static final byte[] EMPTY = new byte[0];
+
+    // Compiled automata, shared by all thread clones with the same configuration
+    private static final Map<String, Automaton> automata = new ConcurrentHashMap<>();
+
+    private transient String patterns;
+    private transient String matchMode;
+    private transient boolean ignoreCase;
+    private transient String encoding;
+    private transient boolean discardBodyOnSuccess;
+    private transient String failureMessage;
+
+    // Sample of this thread whose patterns all matched, its body goes if no other assertion fails it
+    private transient SampleResult matched;
+
+    @Override
+    public AssertionResult getResult(SampleResult response) {
+        AssertionResult result = new AssertionResult(getName());
+        Automaton automaton = automata.computeIfAbsent(automatonKey(), key -> compile());
+        boolean matchAll = !MATCH_ANY.equalsIgnoreCase(matchMode == null ? "" : matchMode.trim());
+
+        byte[] body = response.getResponseData();
+        long found = automaton.scan(body, matchAll);
+        boolean passed = matchAll ? found == automaton.allPatterns : found != 0;
+
+        if (!passed) {
+            result.setFailure(true);
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < automaton.patterns.length; i++) {
+                if ((found & (1L << i)) == 0) {
+                    missing.add(automaton.patterns[i]);
+                }
+            }
+            String detail = (matchAll ? "Missing patterns " : "None of the patterns found ") + missing
+                    + " in " + body.length + " bytes";
+            result.setFailureMessage(failureMessage == null || failureMessage.isEmpty() ? detail : failureMessage + ": " + detail);
+        } else if (discardBodyOnSuccess) {
+            matched = response;
+        }
+        return result;
+    }
+
+    @Override
+    public void sampleOccurred(SampleEvent event) {
+        SampleResult response = event.getResult();
+        if (response != matched) {
+            return;
+        }
+        matched = null;
+        if (response.isSuccessful()) {
+            // Listeners only need the size of passing samples, pin it before dropping the data
+            response.setBodySize(response.getBodySizeAsLong());
+            response.setBytes(response.getBytesAsLong());
+            response.setResponseData(EMPTY);
+        }
+    }
+
+    @Override
+    public void sampleStarted(SampleEvent event) {
+        // Not used
+    }
+
+    @Override
+    public void sampleStopped(SampleEvent event) {
+        // Not used
+    }
+
+    private String automatonKey() {
+        return patterns + "|" + ignoreCase + "|" + encoding;
+    }
+
+    private Automaton compile() {
+        List<String> literals = new ArrayList<>();
+        if (patterns != null) {
+            for (String line : patterns.split("\\r?\\n")) {
+                if (!line.trim().isEmpty()) {
+                    literals.add(line.trim());
+                }
+            }
+        }
+        if (literals.isEmpty()) {
+            throw new IllegalArgumentException("Multi-pattern assertion '" + getName() + "' has no patterns");
+        }
+        if (literals.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Multi-pattern assertion supports up to " + Long.SIZE + " patterns: " + literals.size());
+        }
+        Charset charset = encoding == null || encoding.isEmpty() ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        Automaton automaton = new Automaton(literals.toArray(new String[0]), charset, ignoreCase);
+        logger.info("Multi-pattern assertion compiled: " + literals + " (" + automaton.stateCount() + " states"
+                + (ignoreCase ? ", ignoring ASCII case" : "") + ")");
+        return automaton;
+    }
+
+    /**
+     * Aho-Corasick automaton expanded to a full byte transition table, so the scan is one array
+     * lookup per input byte without failure-link chasing
+     */
+    static class Automaton {
+        private final String[] patterns;
+        private final long allPatterns;
+        private final int[][] next;
+        private final long[] output;
+        private final byte[] fold = new byte[256];
+
+        Automaton(String[] patterns, Charset charset, boolean ignoreCase) {
+            this.patterns = patterns;
+            this.allPatterns = patterns.length == Long.SIZE ? -1L : (1L << patterns.length) - 1;
+            for (int b = 0; b < 256; b++) {
+                fold[b] = (byte) (ignoreCase && b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b);
+            }
+
+            // Trie of the encoded patterns, -1 marks a missing edge
+            List<int[]> trie = new ArrayList<>();
+            List<Long> outputs = new ArrayList<>();
+            trie.add(newState());
+            outputs.add(0L);
+            for (int i = 0; i < patterns.length; i++) {
+                int state = 0;
+                for (byte raw : patterns[i].getBytes(charset)) {
+                    int b = fold[raw & 0xff] & 0xff;
+                    if (trie.get(state)[b] < 0) {
+                        trie.get(state)[b] = trie.size();
+                        trie.add(newState());
+                        outputs.add(0L);
+                    }
+                    state = trie.get(state)[b];
+                }
+                outputs.set(state, outputs.get(state) | (1L << i));
+            }
+
+            // Breadth-first: missing edges take the failure state's edge, outputs inherit along failure links
+            next = trie.toArray(new int[0][]);
+            output = new long[next.length];
+            int[] failure = new int[next.length];
+            for (int s = 0; s < next.length; s++) {
+                output[s] = outputs.get(s);
+            }
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int b = 0; b < 256; b++) {
+                if (next[0][b] < 0) {
+                    next[0][b] = 0;
+                } else {
+                    failure[next[0][b]] = 0;
+                    queue.add(next[0][b]);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                output[state] |= output[failure[state]];
+                for (int b = 0; b < 256; b++) {
+                    int child = next[state][b];
+                    if (child < 0) {
+                        next[state][b] = next[failure[state]][b];
+                    } else {
+                        failure[child] = next[failure[state]][b];
+                        queue.add(child);
+                    }
+                }
+            }
+        }
+
+        private static int[] newState() {
+            int[] edges = new int[256];
+            Arrays.fill(edges, -1);
+            return edges;
+        }
+
+        /**
+         * @return bit set of the patterns found; stops early once all (or, for any, one) are found
+         */
+        long scan(byte[] data, boolean matchAll) {
+            long found = 0;
+            int state = 0;
+            for (byte b : data) {
+                state = next[state][fold[b & 0xff] & 0xff];
+                if (output[state] != 0) {
+                    found |= output[state];
+                    if (!matchAll || found == allPatterns) {
+                        break;
+                    }
+                }
+            }
+            return found;
+        }
+
+        int stateCount() {
+            return next.length;
+        }
+    }
+
+    public String getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(String patterns) {
+        this.patterns = patterns;
+    }
+
+    public String getMatchMode() {
+        return matchMode;
+    }
+
+    public void setMatchMode(String matchMode) {
+        this.matchMode = matchMode;
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public void setIgnoreCase(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public boolean isDiscardBodyOnSuccess() {
+        return discardBodyOnSuccess;
+    }
+
+    public void setDiscardBodyOnSuccess(boolean discardBodyOnSuccess) {
+        this.discardBodyOnSuccess = discardBodyOnSuccess;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public void setFailureMessage(String failureMessage) {
+        this.failureMessage = failureMessage;
+    }
+}
@@ -0,0 +1,47 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+import org.apache.jmeter.testbeans.gui.TextAreaEditor;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link MultiPatternAssertion}, labels are in MultiPatternAssertionResources.properties
+ */
+public class MultiPatternAssertionBeanInfo extends BeanInfoSupport {
+
+    public MultiPatternAssertionBeanInfo() {
+        super(MultiPatternAssertion.class);
+
+        createPropertyGroup("matching", new String[]{"patterns", "matchMode", "ignoreCase", "encoding"});
+        createPropertyGroup("result", new String[]{"failureMessage", "discardBodyOnSuccess"});
+
+        PropertyDescriptor p = property("patterns");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+        p.setPropertyEditorClass(TextAreaEditor.class);
+
+        p = property("matchMode");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, MultiPatternAssertion.MATCH_ALL);
+        p.setValue(NOT_OTHER, Boolean.TRUE);
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+        p.setValue(TAGS, new String[]{MultiPatternAssertion.MATCH_ALL, MultiPatternAssertion.MATCH_ANY});
+
+        p = property("ignoreCase");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+
+        p = property("encoding");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "UTF-8");
+
+        p = property("failureMessage");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("discardBodyOnSuccess");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, Boolean.FALSE);
+    }
+}
@@ -0,0 +1,99 @@
+package com.iskender.load;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests of the Aho-Corasick automaton behind the multi-pattern assertion
+ */
+public class MultiPatternAssertionTest {
+
+    private static MultiPatternAssertion.Automaton automaton(boolean ignoreCase, String... patterns) {
+        return new MultiPatternAssertion.Automaton(patterns, StandardCharsets.UTF_8, ignoreCase);
+    }
+
+    private static long scanAll(MultiPatternAssertion.Automaton automaton, String body) {
+        return automaton.scan(body.getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    @Test
+    public void findsOverlappingPatterns() {
+        MultiPatternAssertion.Automaton automaton = automaton(false, "he", "she", "his", "hers");
+        // "ushers" holds "she" and "hers", which share "he"; "his" is not there
+        Assert.assertEquals(scanAll(automaton, "ushers"), 0b1011L);
+        Assert.assertEquals(scanAll(automaton, "his ushers"), 0b1111L);
+    }
+
+    @Test
+    public void findsPatternsInsideLongerPartialMatches() {
+        MultiPatternAssertion.Automaton automaton = automaton(false, "abcd", "bc", "c");
+        // The trie walks towards "abcd" and has to report "bc" and "c" through the failure links
+        Assert.assertEquals(scanAll(automaton, "xabcx"), 0b110L);
+        Assert.assertEquals(scanAll(automaton, "abcabcd"), 0b111L);
+        Assert.assertEquals(scanAll(automaton, "ab"), 0L);
+    }
+
+    @Test
+    public void findsPatternsWithRepeatedPrefixes() {
+        MultiPatternAssertion.Automaton automaton = automaton(false, "aab");
+        Assert.assertEquals(scanAll(automaton, "aaab"), 1L);
+        Assert.assertEquals(scanAll(automaton, "abab"), 0L);
+    }
+
+    @Test
+    public void matchesNonAsciiPatternsOnTheEncodedBytes() {
+        MultiPatternAssertion.Automaton automaton = automaton(false, "product", "sonuç");
+        Assert.assertEquals(scanAll(automaton, "<h1>1.234 sonuç</h1><div class=\"product\">"), 0b11L);
+        Assert.assertEquals(scanAll(automaton, "sonuc product"), 0b01L);
+    }
+
+    @Test
+    public void ignoreCaseFoldsAsciiLetters() {
+        Assert.assertEquals(scanAll(automaton(true, "Product"), "PRODUCT list"), 1L);
+        Assert.assertEquals(scanAll(automaton(true, "PRODUCT"), "product list"), 1L);
+        Assert.assertEquals(scanAll(automaton(false, "Product"), "PRODUCT list"), 0L);
+    }
+
+    @Test
+    public void ignoreCaseLeavesNonAsciiLettersAlone() {
+        MultiPatternAssertion.Automaton automaton = automaton(true, "sonuç");
+        Assert.assertEquals(scanAll(automaton, "SONUç"), 1L);
+        Assert.assertEquals(scanAll(automaton, "SONUÇ"), 0L, "'Ç' is not folded to 'ç'");
+    }
+
+    @Test
+    public void anyStopsAtTheFirstMatch() {
+        MultiPatternAssertion.Automaton automaton = automaton(false, "first", "second");
+        byte[] body = "first second".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(automaton.scan(body, false), 0b01L, "The scan should stop before reaching 'second'");
+        Assert.assertEquals(automaton.scan(body, true), 0b11L);
+    }
+
+    @Test
+    public void allScansRawBytesUntilEveryPatternIsFound() {
+        MultiPatternAssertion.Automaton automaton = automaton(false, "a", "b");
+        // The body is never decoded, invalid UTF-8 around the matches does not matter
+        byte[] body = {(byte) 0xc3, 'b', (byte) 0xff, 'a', (byte) 0xc3};
+        Assert.assertEquals(automaton.scan(body, true), 0b11L);
+        Assert.assertEquals(automaton.scan(body, false), 0b10L);
+        Assert.assertEquals(automaton.scan(new byte[0], true), 0L);
+    }
+
+    @Test
+    public void supportsSixtyFourPatterns() {
+        String[] patterns = new String[Long.SIZE];
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = String.format("<p%02d>", i);
+            body.append(patterns[i]);
+        }
+        MultiPatternAssertion.Automaton automaton = automaton(false, patterns);
+        Assert.assertEquals(scanAll(automaton, body.toString()), -1L, "All 64 bits should be set");
+        Assert.assertEquals(scanAll(automaton, body.toString().replace("<p63>", "")), Long.MAX_VALUE,
+                "Only the highest bit should be missing");
+        Assert.assertEquals(scanAll(automaton, body.toString().replace("<p00>", "")), -2L,
+                "Only the lowest bit should be missing");
+    }
+}
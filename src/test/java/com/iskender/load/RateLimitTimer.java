@@ -0,0 +1,92 @@
+package com.iskender.load;
+
+import com.iskender.utils.RateLimiter;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+import org.apache.jmeter.timers.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the samplers in its scope at permitsPerSecond with room for a burst, using the same
+ * {@link RateLimiter} token bucket as the API tests. Unlike the Constant Throughput Timer the limit
+ * is a ceiling, not a target: idle threads do not make others speed up, and a burst after a quiet
+ * period goes out at once. Timers with the same limiterName share one bucket across thread groups,
+ * so all traffic to a shared environment can be held under one limit.
+ */
+public class RateLimitTimer extends AbstractTestElement implements Timer, TestStateListener, TestBean {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(RateLimitTimer.class);
+
+    private static final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    private transient String limiterName;
+    private transient double permitsPerSecond;
+    private transient int burst;
+
+    @Override
+    public long delay() {
+        RateLimiter limiter = limiters.computeIfAbsent(limiterName, name -> new RateLimiter(name, permitsPerSecond, burst));
+        return TimeUnit.NANOSECONDS.toMillis(limiter.reserve());
+    }
+
+    /**
+     * The bucket of the timers with this name, for samplers that send several requests per sample
+     * and take a permit for each; null until such a timer delayed its first sampler
+     */
+    static RateLimiter limiter(String limiterName) {
+        return limiters.get(limiterName);
+    }
+
+    @Override
+    public void testStarted() {
+        limiters.clear();
+    }
+
+    @Override
+    public void testStarted(String host) {
+        testStarted();
+    }
+
+    @Override
+    public void testEnded() {
+        for (RateLimiter limiter : limiters.values()) {
+            logger.info(limiter.getSummary());
+        }
+    }
+
+    @Override
+    public void testEnded(String host) {
+        testEnded();
+    }
+
+    public String getLimiterName() {
+        return limiterName;
+    }
+
+    public void setLimiterName(String limiterName) {
+        this.limiterName = limiterName;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+}
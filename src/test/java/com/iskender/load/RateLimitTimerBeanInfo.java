@@ -0,0 +1,29 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link RateLimitTimer}, labels are in RateLimitTimerResources.properties
+ */
+public class RateLimitTimerBeanInfo extends BeanInfoSupport {
+
+    public RateLimitTimerBeanInfo() {
+        super(RateLimitTimer.class);
+
+        createPropertyGroup("limit", new String[]{"limiterName", "permitsPerSecond", "burst"});
+
+        PropertyDescriptor p = property("limiterName");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "${BASE_DOMAIN}");
+
+        p = property("permitsPerSecond");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 10.0);
+
+        p = property("burst");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, 1);
+    }
+}
@@ -0,0 +1,280 @@
+package com.iskender.load;
+
+import com.iskender.utils.Csv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates a search request sequence for the N11 load plan with a realistic popularity mix:
+ * head queries drawn from a Zipf distribution over a generated vocabulary, long-tail queries that
+ * occur only once, and typos / ASCII-folded Turkish spellings of popular queries. The output is a
+ * CSV with the columns search_term,kind that the Dataset Feeder reads in sequential mode, so every
+ * row is one request in the order users would send them.
+ *
+ * The build generates a fresh workload next to the load plan for every run (load-workload execution),
+ * so repeated runs do not replay the same long-tail queries into warm caches. Without --seed a random
+ * seed is used and printed; pass it back to reproduce a run's workload.
+ *
+ * Usage: java -cp target/test-classes com.iskender.load.SearchTermWorkloadGenerator
+ *        [--rows=100000] [--vocabulary=5000] [--zipf=1.07] [--tail=0.25] [--typo=0.08] [--seed=random]
+ *        [--out=target/load-plans/search_terms_workload.csv]
+ */
+public class SearchTermWorkloadGenerator {
+
+    public static final String KIND_HEAD = "head";
+    public static final String KIND_TAIL = "tail";
+    public static final String KIND_TYPO = "typo";
+
+    private static final List<String> BRANDS = List.of(
+            "apple", "samsung", "xiaomi", "huawei", "lenovo", "asus", "hp", "dell", "casper", "monster",
+            "philips", "arçelik", "beko", "vestel", "bosch", "siemens", "tefal", "karaca", "fakir", "dyson",
+            "adidas", "nike", "puma", "skechers", "lumberjack", "kiğılı", "mavi", "koton", "lc waikiki", "defacto",
+            "nivea", "loreal", "garnier", "sephora", "gratis", "eti", "ülker", "torku", "lego", "ray-ban"
+    );
+
+    private static final List<String> CATEGORIES = List.of(
+            "telefon", "kulaklık", "bluetooth kulaklık", "şarj aleti", "powerbank", "laptop", "oyuncu bilgisayarı",
+            "tablet", "akıllı saat", "televizyon", "çamaşır makinesi", "bulaşık makinesi", "buzdolabı", "ütü",
+            "elektrikli süpürge", "kahve makinesi", "tost makinesi", "airfryer", "spor ayakkabı", "koşu ayakkabısı",
+            "kışlık mont", "erkek gömlek", "kadın çanta", "çocuk ayakkabısı", "güneş gözlüğü", "nemlendirici krem",
+            "şampuan", "parfüm", "oyuncak", "kamp sandalyesi", "oyuncu koltuğu", "çaydanlık", "tencere seti"
+    );
+
+    private static final List<String> MODIFIERS = List.of(
+            "siyah", "beyaz", "kırmızı", "lacivert", "gümüş", "pembe", "yeşil", "128gb", "256gb", "512gb",
+            "pro", "max", "mini", "ultra", "2024", "indirimli", "orijinal", "ikinci el", "xl", "42 numara",
+            "kablosuz", "şık", "büyük boy", "küçük boy", "çelik", "deri", "pamuklu", "su geçirmez"
+    );
+
+    private static final Map<Character, Character> TURKISH_FOLDING = Map.of(
+            'ç', 'c', 'ğ', 'g', 'ı', 'i', 'ö', 'o', 'ş', 's', 'ü', 'u', 'İ', 'I'
+    );
+
+    // Neighbouring keys on a Turkish Q keyboard, used for substitution typos
+    private static final String[] KEYBOARD_ROWS = {"qwertyuıopğü", "asdfghjklşi", "zxcvbnmöç"};
+
+    private final Random random;
+    private final double tailRatio;
+    private final double typoRatio;
+    private final List<String> vocabulary;
+    private final double[] cumulativePopularity;
+    private final Set<String> emittedTail = new LinkedHashSet<>();
+    private long tailCounter;
+
+    public SearchTermWorkloadGenerator(int vocabularySize, double zipfExponent, double tailRatio, double typoRatio, long seed) {
+        this.random = new Random(seed);
+        this.tailRatio = tailRatio;
+        this.typoRatio = typoRatio;
+        this.vocabulary = buildVocabulary(vocabularySize);
+        this.cumulativePopularity = zipfCumulative(vocabulary.size(), zipfExponent);
+    }
+
+    /**
+     * @return the next request as {search_term, kind}
+     */
+    public String[] next() {
+        double roll = random.nextDouble();
+        if (roll < tailRatio) {
+            return new String[]{uniqueTailQuery(), KIND_TAIL};
+        }
+        String term = vocabulary.get(sampleRank());
+        if (roll < tailRatio + typoRatio) {
+            return new String[]{misspell(term), KIND_TYPO};
+        }
+        return new String[]{term, KIND_HEAD};
+    }
+
+    private List<String> buildVocabulary(int size) {
+        // Rank order matters: plain brands and categories are the most popular, combinations follow
+        Set<String> terms = new LinkedHashSet<>();
+        List<String> brands = new ArrayList<>(BRANDS);
+        List<String> categories = new ArrayList<>(CATEGORIES);
+        Collections.shuffle(brands, random);
+        Collections.shuffle(categories, random);
+        for (int i = 0; i < Math.max(brands.size(), categories.size()); i++) {
+            if (i < brands.size()) {
+                terms.add(brands.get(i));
+            }
+            if (i < categories.size()) {
+                terms.add(categories.get(i));
+            }
+        }
+        int attempts = 0;
+        while (terms.size() < size && attempts++ < size * 20) {
+            String brand = brands.get(random.nextInt(brands.size()));
+            String category = categories.get(random.nextInt(categories.size()));
+            if (random.nextInt(3) == 0) {
+                terms.add(brand + " " + category + " " + MODIFIERS.get(random.nextInt(MODIFIERS.size())));
+            } else {
+                terms.add(brand + " " + category);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            total += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private int sampleRank() {
+        int index = Arrays.binarySearch(cumulativePopularity, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, vocabulary.size() - 1);
+    }
+
+    /**
+     * Long-tail queries are specific enough that no cache has seen them before
+     */
+    private String uniqueTailQuery() {
+        while (true) {
+            String brand = BRANDS.get(random.nextInt(BRANDS.size()));
+            String category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+            String modifier = MODIFIERS.get(random.nextInt(MODIFIERS.size()));
+            String model = Long.toString(1000 + (tailCounter++ * 7919 + random.nextInt(7919)) % 900_000, 36);
+            String query = brand + " " + category + " " + modifier + " " + model;
+            if (emittedTail.add(query)) {
+                return query;
+            }
+        }
+    }
+
+    private String misspell(String term) {
+        // Folding leaves terms without Turkish characters unchanged, so try until the spelling differs
+        for (int attempt = 0; attempt < 5; attempt++) {
+            String misspelled;
+            switch (random.nextInt(5)) {
+                case 0:
+                    misspelled = foldTurkish(term);
+                    break;
+                case 1:
+                    misspelled = swapAdjacent(term);
+                    break;
+                case 2:
+                    misspelled = dropCharacter(term);
+                    break;
+                case 3:
+                    misspelled = duplicateCharacter(term);
+                    break;
+                default:
+                    misspelled = substituteNeighbour(term);
+            }
+            if (!misspelled.equals(term)) {
+                return misspelled;
+            }
+        }
+        return duplicateCharacter(term);
+    }
+
+    private static String foldTurkish(String term) {
+        StringBuilder folded = new StringBuilder(term.length());
+        for (char c : term.toCharArray()) {
+            folded.append(TURKISH_FOLDING.getOrDefault(c, c));
+        }
+        return folded.toString();
+    }
+
+    private String swapAdjacent(String term) {
+        if (term.length() < 3) {
+            return term + term.charAt(term.length() - 1);
+        }
+        int i = 1 + random.nextInt(term.length() - 2);
+        char[] chars = term.toCharArray();
+        char tmp = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = tmp;
+        return new String(chars);
+    }
+
+    private String dropCharacter(String term) {
+        if (term.length() < 4) {
+            return term;
+        }
+        int i = 1 + random.nextInt(term.length() - 1);
+        return term.substring(0, i) + term.substring(i + 1);
+    }
+
+    private String duplicateCharacter(String term) {
+        int i = random.nextInt(term.length());
+        return term.substring(0, i + 1) + term.charAt(i) + term.substring(i + 1);
+    }
+
+    private String substituteNeighbour(String term) {
+        int i = random.nextInt(term.length());
+        char c = term.charAt(i);
+        for (String row : KEYBOARD_ROWS) {
+            int position = row.indexOf(c);
+            if (position >= 0) {
+                int neighbour = position == 0 ? 1 : (position == row.length() - 1 ? position - 1
+                        : position + (random.nextBoolean() ? 1 : -1));
+                return term.substring(0, i) + row.charAt(neighbour) + term.substring(i + 1);
+            }
+        }
+        return duplicateCharacter(term);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int vocabularySize = Integer.parseInt(options.getOrDefault("vocabulary", "5000"));
+        double zipf = Double.parseDouble(options.getOrDefault("zipf", "1.07"));
+        double tail = Double.parseDouble(options.getOrDefault("tail", "0.25"));
+        double typo = Double.parseDouble(options.getOrDefault("typo", "0.08"));
+        String seedOption = options.getOrDefault("seed", "");
+        long seed = seedOption.isEmpty() ? new Random().nextLong() : Long.parseLong(seedOption);
+        Path out = Paths.get(options.getOrDefault("out", "target/load-plans/search_terms_workload.csv"));
+
+        SearchTermWorkloadGenerator generator = new SearchTermWorkloadGenerator(vocabularySize, zipf, tail, typo, seed);
+        Map<String, Integer> kinds = new HashMap<>();
+        Map<String, Integer> headCounts = new HashMap<>();
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("search_term,kind\n");
+            for (int i = 0; i < rows; i++) {
+                String[] request = generator.next();
+                writer.write(Csv.value(request[0]) + "," + request[1] + "\n");
+                kinds.merge(request[1], 1, Integer::sum);
+                if (KIND_HEAD.equals(request[1])) {
+                    headCounts.merge(request[0], 1, Integer::sum);
+                }
+            }
+        }
+
+        int distinctHead = headCounts.size();
+        int topTenShare = headCounts.values().stream().sorted((a, b) -> b - a).limit(10).mapToInt(Integer::intValue).sum();
+        System.out.println("Wrote " + rows + " search requests to " + out.toAbsolutePath() + " (seed " + seed + ")");
+        System.out.println("  kinds: " + kinds);
+        System.out.println(String.format(Locale.ROOT, "  head: %d distinct terms, top 10 terms = %.1f%% of head requests",
+                distinctHead, kinds.getOrDefault(KIND_HEAD, 0) == 0 ? 0.0 : 100.0 * topTenShare / kinds.get(KIND_HEAD)));
+    }
+}
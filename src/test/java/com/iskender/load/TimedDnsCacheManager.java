@@ -0,0 +1,36 @@
+package com.iskender.load;
+
+import org.apache.jmeter.protocol.http.control.DNSCacheManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * DNS Cache Manager that also measures how long each lookup takes, so ConnectionPhaseRecorder can
+ * split the DNS part out of JMeter's connect time. Lookups run on the sampler thread while the
+ * connection is opened; cached hosts cost next to nothing, like in a browser.
+ *
+ * The JMeter GUI edits it with the standard DNS Cache Manager panel, which saves the element back
+ * as a plain DNSCacheManager; keep testclass="com.iskender.load.TimedDnsCacheManager" in the jmx.
+ */
+public class TimedDnsCacheManager extends DNSCacheManager {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(TimedDnsCacheManager.class);
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long start = System.nanoTime();
+        try {
+            return super.resolve(host);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            ConnectionPhaseRecorder.recordDnsTime(elapsed);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Resolved " + host + " in " + elapsed / 1000 + " us");
+            }
+        }
+    }
+}
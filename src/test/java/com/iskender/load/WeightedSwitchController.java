@@ -0,0 +1,110 @@
+package com.iskender.load;
+
+import org.apache.jmeter.control.GenericController;
+import org.apache.jmeter.samplers.Sampler;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs one of its children per pass, chosen at random by weight, so a single thread group can
+ * drive a traffic mix: each child is one user flow (usually a Transaction Controller) and the
+ * weights are the share of iterations that take it. All flows run on the same threads, so they
+ * share the feeders, cookie / cache managers and the keep-alive connections of a thread.
+ *
+ * weights lists one number per child in tree order, e.g. "50,20,20,10"; missing weights count as
+ * 0. The chosen child's name is stored in variableName, if set, for use in the flow and the JTL.
+ */
+public class WeightedSwitchController extends GenericController implements TestBean {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LogManager.getLogger(WeightedSwitchController.class);
+
+    private static final String WEIGHTS = "weights";
+    private static final String VARIABLE_NAME = "variableName";
+
+    private transient String weights;
+    private transient String variableName;
+
+    // Per clone, i.e. per thread: cumulative weights in child order
+    private transient double[] cumulative;
+
+    @Override
+    public Sampler next() {
+        // Choose once per pass, like the Switch Controller
+        if (isFirst()) {
+            current = choose();
+        }
+        return super.next();
+    }
+
+    @Override
+    protected void incrementCurrent() {
+        // The chosen child is done, end the pass
+        current = Integer.MAX_VALUE;
+    }
+
+    private int choose() {
+        if (cumulative == null || cumulative.length != subControllersAndSamplers.size()) {
+            cumulative = cumulativeWeights(getPropertyAsString(WEIGHTS), subControllersAndSamplers.size());
+        }
+        if (cumulative.length == 0) {
+            return 0;
+        }
+        double total = cumulative[cumulative.length - 1];
+        int chosen = 0;
+        if (total > 0) {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble(total));
+            // Exact hits belong to the next child, insertion points are already the child index
+            chosen = index >= 0 ? index + 1 : -index - 1;
+            // Skip zero-weight children that share the boundary
+            while (chosen < cumulative.length - 1 && cumulative[chosen] == (chosen == 0 ? 0 : cumulative[chosen - 1])) {
+                chosen++;
+            }
+        }
+        String variable = getPropertyAsString(VARIABLE_NAME);
+        if (!variable.isEmpty()) {
+            JMeterContextService.getContext().getVariables().put(variable, subControllersAndSamplers.get(chosen).getName());
+        }
+        return chosen;
+    }
+
+    private double[] cumulativeWeights(String spec, int children) {
+        String[] parts = spec == null || spec.trim().isEmpty() ? new String[0] : spec.split(",");
+        if (parts.length != children) {
+            logger.warn("Weighted switch '" + getName() + "' has " + parts.length + " weights for " + children
+                    + " children, missing weights count as 0");
+        }
+        double[] sums = new double[children];
+        double sum = 0;
+        for (int i = 0; i < children; i++) {
+            double weight = i < parts.length ? Double.parseDouble(parts[i].trim()) : 0;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weighted switch '" + getName() + "' has a negative weight: " + spec);
+            }
+            sum += weight;
+            sums[i] = sum;
+        }
+        return sums;
+    }
+
+    public String getWeights() {
+        return weights;
+    }
+
+    public void setWeights(String weights) {
+        this.weights = weights;
+    }
+
+    public String getVariableName() {
+        return variableName;
+    }
+
+    public void setVariableName(String variableName) {
+        this.variableName = variableName;
+    }
+}
@@ -0,0 +1,26 @@
+package com.iskender.load;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+import java.beans.PropertyDescriptor;
+
+/**
+ * Property editor definition for {@link WeightedSwitchController}, labels are in WeightedSwitchControllerResources.properties
+ */
+public class WeightedSwitchControllerBeanInfo extends BeanInfoSupport {
+
+    public WeightedSwitchControllerBeanInfo() {
+        super(WeightedSwitchController.class);
+
+        createPropertyGroup("mix", new String[]{"weights", "variableName"});
+
+        PropertyDescriptor p = property("weights");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "");
+
+        p = property("variableName");
+        p.setValue(NOT_UNDEFINED, Boolean.TRUE);
+        p.setValue(DEFAULT, "flow");
+        p.setValue(NOT_EXPRESSION, Boolean.TRUE);
+    }
+}
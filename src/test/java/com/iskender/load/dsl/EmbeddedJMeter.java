@@ -0,0 +1,157 @@
+package com.iskender.load.dsl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.jmeter.JMeter;
+import org.apache.jmeter.engine.JMeterEngineException;
+import org.apache.jmeter.engine.StandardJMeterEngine;
+import org.apache.jmeter.reporters.ResultCollector;
+import org.apache.jmeter.reporters.Summariser;
+import org.apache.jmeter.save.SaveService;
+import org.apache.jmeter.services.FileServer;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jorphan.collections.HashTree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs plans built with {@link JMeterDsl} inside the current JVM and exports them as .jmx.
+ *
+ * Uses the JMeter installation that jmeter-maven-plugin unpacks under target/ (mvn jmeter:configure,
+ * or any earlier load test run), found through target/config.json or -Djmeter.home. The project
+ * compiles against the JMeter API only, so a JVM started from the Maven test classpath relaunches
+ * itself once with the installation's libraries first; see {@link #relaunchIfNeeded(Class, String[])}.
+ */
+public final class EmbeddedJMeter {
+
+    private static final String JMETER_HOME = "jmeter.home";
+
+    private EmbeddedJMeter() {}
+
+    /**
+     * Call first thing in main and return if it returns true. When the JMeter runtime is missing
+     * from the classpath, mainClass runs again in a child JVM with the JMeter libraries.
+     *
+     * @return true if the child JVM did the work, false if the JMeter runtime is available here
+     */
+    public static boolean relaunchIfNeeded(Class<?> mainClass, String[] args) throws IOException, InterruptedException {
+        // XStream ships with JMeter but is not among the provided JMeter API dependencies
+        if (EmbeddedJMeter.class.getClassLoader().getResource("com/thoughtworks/xstream/XStream.class") != null) {
+            return false;
+        }
+        Path home = jmeterHome();
+        String classes = Paths.get(mainClass.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
+        String classpath = String.join(File.pathSeparator,
+                classes, home.resolve("lib").resolve("*").toString(), home.resolve("lib").resolve("ext").resolve("*").toString());
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classpath);
+        command.add("-D" + JMETER_HOME + "=" + home);
+        command.add(mainClass.getName());
+        command.addAll(Arrays.asList(args));
+        int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(mainClass.getSimpleName() + " failed with exit code " + exitCode);
+        }
+        return true;
+    }
+
+    /**
+     * Loads jmeter.properties and the user.properties written by jmeter-maven-plugin, which carry
+     * user.classpath, sample_variables and phase.report.file like for the Maven runs
+     */
+    public static void initialize() throws IOException {
+        Path home = jmeterHome();
+        JMeterUtils.setJMeterHome(home.toString());
+        JMeterUtils.loadJMeterProperties(home.resolve("bin").resolve("jmeter.properties").toString());
+        Path userProperties = home.resolve("bin").resolve("user.properties");
+        if (Files.exists(userProperties)) {
+            JMeterUtils.getJMeterProperties().putAll(JMeterUtils.loadProperties(userProperties.toString()));
+        }
+        JMeterUtils.initLocale();
+    }
+
+    public static void setProperty(String name, String value) {
+        JMeterUtils.setProperty(name, value);
+    }
+
+    public static void export(HashTree tree, Path jmx) throws IOException {
+        if (jmx.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(jmx.toAbsolutePath().getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(jmx)) {
+            SaveService.saveTree(tree, out);
+        }
+        System.out.println("Test plan exported to " + jmx.toAbsolutePath());
+    }
+
+    /**
+     * Runs the plan and blocks until all thread groups finished
+     *
+     * @param baseDir directory relative file names in the plan resolve against, like the .jmx directory
+     * @param results CSV results file, in the same format as the jmeter-maven-plugin runs
+     */
+    public static void run(HashTree tree, Path baseDir, Path results) throws IOException {
+        StandardJMeterEngine engine = configure(tree, baseDir, results);
+        engine.run();
+        System.out.println("Results written to " + results.toAbsolutePath());
+    }
+
+    /**
+     * Starts the plan in the background; stop it with {@link StandardJMeterEngine#stopTest(boolean)}
+     * and wait for it with {@link StandardJMeterEngine#awaitTermination(java.time.Duration)}
+     */
+    public static StandardJMeterEngine start(HashTree tree, Path baseDir, Path results) throws IOException, JMeterEngineException {
+        StandardJMeterEngine engine = configure(tree, baseDir, results);
+        engine.runTest();
+        return engine;
+    }
+
+    private static StandardJMeterEngine configure(HashTree tree, Path baseDir, Path results) throws IOException {
+        FileServer.getFileServer().setBaseForScript(baseDir.toAbsolutePath().resolve("plan.jmx").toFile());
+        JMeter.convertSubTree(tree, true);
+
+        Files.createDirectories(results.toAbsolutePath().getParent());
+        Files.deleteIfExists(results);
+        Summariser summariser = new Summariser(JMeterUtils.getPropDefault("summariser.name", "summary"));
+        ResultCollector collector = new ResultCollector(summariser);
+        collector.setFilename(results.toString());
+        tree.add(tree.getArray()[0], collector);
+
+        StandardJMeterEngine engine = new StandardJMeterEngine();
+        engine.configure(tree);
+        return engine;
+    }
+
+    /**
+     * -Djmeter.home, else the installation recorded by jmeter-maven-plugin in target/config.json
+     */
+    static Path jmeterHome() throws IOException {
+        String configured = System.getProperty(JMETER_HOME);
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        Path config = Paths.get("target", "config.json");
+        if (Files.exists(config)) {
+            JsonNode configurations = new ObjectMapper().readTree(config.toFile()).path("configurations");
+            for (int i = configurations.size() - 1; i >= 0; i--) {
+                Path home = Paths.get(configurations.get(i).path("jmeterDirectoryPath").asText());
+                if (Files.isDirectory(home.resolve("bin"))) {
+                    return home;
+                }
+            }
+        }
+        throw new IllegalStateException("No JMeter installation found. Run mvn jmeter:configure@configuration once "
+                + "or pass -Djmeter.home=<JMeter directory>");
+    }
+}
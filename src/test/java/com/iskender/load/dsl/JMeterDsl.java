@@ -0,0 +1,445 @@
+package com.iskender.load.dsl;
+
+import com.iskender.load.AutocompleteTypingSampler;
+import com.iskender.load.ConnectionPhaseRecorder;
+import com.iskender.load.DatasetFeeder;
+import com.iskender.load.FailureReservoir;
+import com.iskender.load.GeneratorHealthMonitor;
+import com.iskender.load.MultiPatternAssertion;
+import com.iskender.load.RateLimitTimer;
+import com.iskender.load.TimedDnsCacheManager;
+import com.iskender.load.WeightedSwitchController;
+import org.apache.jmeter.assertions.DurationAssertion;
+import org.apache.jmeter.assertions.ResponseAssertion;
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.control.LoopController;
+import org.apache.jmeter.control.TransactionController;
+import org.apache.jmeter.protocol.http.control.CacheManager;
+import org.apache.jmeter.protocol.http.control.CookieManager;
+import org.apache.jmeter.protocol.http.control.Header;
+import org.apache.jmeter.protocol.http.control.HeaderManager;
+import org.apache.jmeter.protocol.http.sampler.HTTPSamplerProxy;
+import org.apache.jmeter.protocol.http.util.HTTPArgument;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.TestPlan;
+import org.apache.jmeter.testelement.property.BooleanProperty;
+import org.apache.jmeter.testelement.property.DoubleProperty;
+import org.apache.jmeter.testelement.property.IntegerProperty;
+import org.apache.jmeter.testelement.property.StringProperty;
+import org.apache.jmeter.threads.ThreadGroup;
+import org.apache.jmeter.timers.ConstantThroughputTimer;
+import org.apache.jmeter.timers.UniformRandomTimer;
+import org.apache.jorphan.collections.HashTree;
+import org.apache.jorphan.collections.ListedHashTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds JMeter test plans in code. Every factory returns a {@link Node} (a configured test
+ * element plus its children), and {@link Node#toTree()} turns a test plan node into the HashTree
+ * that JMeter runs and SaveService writes as .jmx. Elements get the same test and GUI classes as
+ * when created in the JMeter GUI, so exported plans open there unchanged.
+ *
+ * Only the elements used by the load plans are covered; {@link #element(TestElement, String, String)}
+ * wraps anything else.
+ */
+public final class JMeterDsl {
+
+    private static final String TEST_BEAN_GUI = "org.apache.jmeter.testbeans.gui.TestBeanGUI";
+
+    private JMeterDsl() {}
+
+    /**
+     * A test element and the elements in its scope
+     */
+    public static class Node {
+        private final TestElement element;
+        private final List<Node> children = new ArrayList<>();
+
+        Node(TestElement element) {
+            this.element = element;
+        }
+
+        /**
+         * Adds the nodes in order; null entries are skipped so optional elements can be inlined
+         */
+        public Node children(Node... nodes) {
+            for (Node node : nodes) {
+                if (node != null) {
+                    children.add(node);
+                }
+            }
+            return this;
+        }
+
+        public Node disabled() {
+            element.setEnabled(false);
+            return this;
+        }
+
+        public TestElement getElement() {
+            return element;
+        }
+
+        /**
+         * @return this node and its children as a tree with this node as the only root
+         */
+        public HashTree toTree() {
+            HashTree tree = new ListedHashTree();
+            addTo(tree);
+            return tree;
+        }
+
+        void addTo(HashTree parent) {
+            HashTree subtree = parent.add(element);
+            for (Node child : children) {
+                child.addTo(subtree);
+            }
+        }
+    }
+
+    /**
+     * HTTP request node, query parameters are always URL-encoded like the plans' search terms
+     */
+    public static class HttpNode extends Node {
+        private final HTTPSamplerProxy sampler;
+
+        HttpNode(HTTPSamplerProxy sampler) {
+            super(sampler);
+            this.sampler = sampler;
+        }
+
+        public HttpNode query(String name, String value) {
+            HTTPArgument argument = new HTTPArgument(name, value);
+            argument.setAlwaysEncoded(true);
+            argument.setUseEquals(true);
+            sampler.getArguments().addArgument(argument);
+            return this;
+        }
+
+        public HttpNode encoding(String contentEncoding) {
+            sampler.setContentEncoding(contentEncoding);
+            return this;
+        }
+    }
+
+    /**
+     * Test bean node (the com.iskender.load components and JMeter's own test beans)
+     */
+    public static class BeanNode extends Node {
+
+        BeanNode(TestElement element) {
+            super(element);
+        }
+
+        public BeanNode property(String name, String value) {
+            getElement().setProperty(new StringProperty(name, value));
+            return this;
+        }
+
+        public BeanNode property(String name, int value) {
+            getElement().setProperty(new IntegerProperty(name, value));
+            return this;
+        }
+
+        public BeanNode property(String name, double value) {
+            getElement().setProperty(new DoubleProperty(name, value));
+            return this;
+        }
+
+        public BeanNode property(String name, boolean value) {
+            getElement().setProperty(new BooleanProperty(name, value));
+            return this;
+        }
+    }
+
+    /**
+     * Weighted Switch Controller node, every child comes with its weight
+     */
+    public static class WeightedNode extends Node {
+        private final List<String> weights = new ArrayList<>();
+
+        WeightedNode(TestElement element) {
+            super(element);
+        }
+
+        public WeightedNode child(double weight, Node node) {
+            weights.add(weight == Math.rint(weight) ? String.valueOf((long) weight) : String.valueOf(weight));
+            getElement().setProperty(new StringProperty("weights", String.join(",", weights)));
+            children(node);
+            return this;
+        }
+    }
+
+    public static Node element(TestElement element, String name, String guiClass) {
+        element.setName(name);
+        element.setProperty(TestElement.TEST_CLASS, element.getClass().getName());
+        element.setProperty(TestElement.GUI_CLASS, guiClass);
+        element.setEnabled(true);
+        return new Node(element);
+    }
+
+    public static Node testPlan(String name, Map<String, String> variables, Node... children) {
+        TestPlan plan = new TestPlan(name);
+        Arguments arguments = new Arguments();
+        variables.forEach(arguments::addArgument);
+        named(arguments, "User Defined Variables", "org.apache.jmeter.config.gui.ArgumentsPanel");
+        plan.setUserDefinedVariables(arguments);
+        plan.setFunctionalMode(false);
+        plan.setSerialized(false);
+        return element(plan, name, "org.apache.jmeter.control.gui.TestPlanGui").children(children);
+    }
+
+    /**
+     * @param iterations loops per thread, -1 to run until durationSeconds
+     * @param durationSeconds 0 to run for the given iterations only
+     */
+    public static Node threadGroup(String name, int threads, int rampUpSeconds, int iterations, long durationSeconds,
+                                   Node... children) {
+        return threadGroup(name, String.valueOf(threads), String.valueOf(rampUpSeconds), String.valueOf(iterations),
+                durationSeconds > 0 ? String.valueOf(durationSeconds) : null, children);
+    }
+
+    /**
+     * Thread group sized by expressions, e.g. ${__P(load.users,1)}, resolved when the test starts
+     *
+     * @param durationSeconds null to run for the given iterations only; JMeter rejects a duration
+     *                        that resolves to 0, so give a large default instead
+     */
+    public static Node threadGroup(String name, String threads, String rampUpSeconds, String iterations,
+                                   String durationSeconds, Node... children) {
+        LoopController loop = new LoopController();
+        loop.setLoops(iterations);
+        loop.setContinueForever(false);
+        named(loop, "Loop Controller", "org.apache.jmeter.control.gui.LoopControlPanel");
+
+        ThreadGroup group = new ThreadGroup();
+        group.setProperty(ThreadGroup.NUM_THREADS, threads);
+        group.setProperty(ThreadGroup.RAMP_TIME, rampUpSeconds);
+        group.setSamplerController(loop);
+        group.setIsSameUserOnNextIteration(true);
+        group.setProperty(ThreadGroup.ON_SAMPLE_ERROR, ThreadGroup.ON_SAMPLE_ERROR_CONTINUE);
+        if (durationSeconds != null) {
+            group.setScheduler(true);
+            group.setProperty(ThreadGroup.DURATION, durationSeconds);
+        }
+        return element(group, name, "org.apache.jmeter.threads.gui.ThreadGroupGui").children(children);
+    }
+
+    /**
+     * Transaction that reports one parent sample with the requests as sub-results, timers excluded
+     */
+    public static Node transaction(String name, Node... children) {
+        TransactionController transaction = new TransactionController();
+        transaction.setGenerateParentSample(true);
+        transaction.setIncludeTimers(false);
+        return element(transaction, name, "org.apache.jmeter.control.gui.TransactionControllerGui").children(children);
+    }
+
+    /**
+     * Transaction around a whole user flow: adds one sample for the flow while the nested
+     * transactions keep reporting their own samples
+     */
+    public static Node flowTransaction(String name, Node... children) {
+        TransactionController transaction = new TransactionController();
+        transaction.setGenerateParentSample(false);
+        transaction.setIncludeTimers(false);
+        return element(transaction, name, "org.apache.jmeter.control.gui.TransactionControllerGui").children(children);
+    }
+
+    /**
+     * Runs one child per iteration, chosen by weight; add the flows with {@link WeightedNode#child(double, Node)}
+     */
+    public static WeightedNode weightedSwitch(String name, String variableName) {
+        WeightedSwitchController controller = new WeightedSwitchController();
+        named(controller, name, TEST_BEAN_GUI);
+        controller.setProperty(new StringProperty("weights", ""));
+        controller.setProperty(new StringProperty("variableName", variableName));
+        return new WeightedNode(controller);
+    }
+
+    public static HttpNode httpGet(String name, String protocol, String domain, int port, String path) {
+        HTTPSamplerProxy sampler = new HTTPSamplerProxy();
+        sampler.setProtocol(protocol);
+        sampler.setDomain(domain);
+        sampler.setPort(port);
+        sampler.setPath(path);
+        sampler.setMethod("GET");
+        sampler.setFollowRedirects(true);
+        sampler.setUseKeepAlive(true);
+        Arguments arguments = new Arguments();
+        named(arguments, "User Defined Variables", "org.apache.jmeter.protocol.http.gui.HTTPArgumentsPanel");
+        sampler.setArguments(arguments);
+        named(sampler, name, "org.apache.jmeter.protocol.http.control.gui.HttpTestSampleGui");
+        return new HttpNode(sampler);
+    }
+
+    public static Node headers(String name, Map<String, String> headers) {
+        HeaderManager manager = new HeaderManager();
+        headers.forEach((header, value) -> manager.add(new Header(header, value)));
+        return element(manager, name, "org.apache.jmeter.protocol.http.gui.HeaderPanel");
+    }
+
+    public static Node cookieManager(String name) {
+        CookieManager manager = new CookieManager();
+        manager.setClearEachIteration(false);
+        manager.setControlledByThread(false);
+        return element(manager, name, "org.apache.jmeter.protocol.http.gui.CookiePanel");
+    }
+
+    public static Node cacheManager(String name) {
+        CacheManager manager = new CacheManager();
+        manager.setClearEachIteration(false);
+        manager.setUseExpires(true);
+        manager.setControlledByThread(false);
+        return element(manager, name, "org.apache.jmeter.protocol.http.gui.CacheManagerGui");
+    }
+
+    /**
+     * System resolver with per-thread cache, lookups are timed for the Connection Phase Recorder
+     */
+    public static Node dnsCacheManager(String name) {
+        TimedDnsCacheManager manager = new TimedDnsCacheManager();
+        manager.setCustomResolver(false);
+        manager.setClearEachIteration(false);
+        return element(manager, name, "org.apache.jmeter.protocol.http.gui.DNSCachePanel");
+    }
+
+    public static Node responseCode(String name, String expectedCode, String failureMessage) {
+        ResponseAssertion assertion = new ResponseAssertion();
+        assertion.setTestFieldResponseCode();
+        assertion.setToMatchType();
+        assertion.addTestString(expectedCode);
+        assertion.setCustomFailureMessage(failureMessage);
+        assertion.setAssumeSuccess(false);
+        return element(assertion, name, "org.apache.jmeter.assertions.gui.AssertionGui");
+    }
+
+    public static Node maxDuration(String name, long milliseconds) {
+        DurationAssertion assertion = new DurationAssertion();
+        assertion.setAllowedDuration(milliseconds);
+        return element(assertion, name, "org.apache.jmeter.assertions.gui.DurationAssertionGui");
+    }
+
+    public static Node uniformRandomTimer(String name, long delayMs, long rangeMs) {
+        UniformRandomTimer timer = new UniformRandomTimer();
+        timer.setDelay(String.valueOf(delayMs));
+        timer.setRange((double) rangeMs);
+        return element(timer, name, "org.apache.jmeter.timers.gui.UniformRandomTimerGui");
+    }
+
+    /**
+     * Paces all threads of the thread group together to the given number of samples per minute
+     */
+    public static BeanNode throughput(String name, double samplesPerMinute) {
+        // calcMode 4: all active threads in current thread group (shared)
+        return bean(new ConstantThroughputTimer(), name)
+                .property("throughput", samplesPerMinute)
+                .property("calcMode", 4);
+    }
+
+    /**
+     * Starts the sampler it is a child of at most once every intervalSeconds per thread, so a flow
+     * paced by its first sampler keeps its own rate whatever the other flows of the mix do
+     */
+    public static BeanNode pacing(String name, double intervalSeconds) {
+        // calcMode 0: this thread only
+        return bean(new ConstantThroughputTimer(), name)
+                .property("throughput", 60 / intervalSeconds)
+                .property("calcMode", 0);
+    }
+
+    /**
+     * Caps the samplers in scope at samplesPerSecond; timers with the same limiterName share the limit
+     */
+    public static BeanNode rateLimit(String name, String limiterName, double samplesPerSecond, int burst) {
+        return bean(new RateLimitTimer(), name)
+                .property("limiterName", limiterName)
+                .property("permitsPerSecond", samplesPerSecond)
+                .property("burst", burst);
+    }
+
+    public static BeanNode datasetFeeder(String name, String filename) {
+        return bean(new DatasetFeeder(), name)
+                .property("filename", filename)
+                .property("fileEncoding", "UTF-8")
+                .property("variableNames", "")
+                .property("ignoreFirstLine", false)
+                .property("delimiter", ",")
+                .property("selectionMode", DatasetFeeder.MODE_SEQUENTIAL)
+                .property("weightColumn", "")
+                .property("perThreadCursor", false)
+                .property("recycle", true)
+                .property("stopThread", false);
+    }
+
+    public static BeanNode connectionPhases(String name, String reportFile) {
+        return bean(new ConnectionPhaseRecorder(), name).property("reportFile", reportFile);
+    }
+
+    public static BeanNode failureReservoir(String name, String directory) {
+        return bean(new FailureReservoir(), name)
+                .property("directory", directory)
+                .property("reservoirSize", 20)
+                .property("maxBodyBytes", 65536);
+    }
+
+    /**
+     * Samples the generator JVM every intervalSeconds; place it at test plan level
+     */
+    public static BeanNode generatorHealth(String name, int intervalSeconds, int warmupSeconds) {
+        return bean(new GeneratorHealthMonitor(), name)
+                .property("intervalSeconds", intervalSeconds)
+                .property("warmupSeconds", warmupSeconds)
+                .property("maxProcessCpu", 0.80)
+                .property("maxSystemCpu", 0.90)
+                .property("maxGcPause", 0.05)
+                .property("maxLiveHeap", 0.85)
+                .property("leakThreshold", 0.10)
+                .property("reportFile", "generator_health.csv")
+                .property("summaryFile", "generator_health.md");
+    }
+
+    /**
+     * Pass a limiterName with {@link BeanNode#property(String, String)} when a {@link #rateLimit} is in scope
+     */
+    public static BeanNode autocompleteTyping(String name, String protocol, String domain, int port, String path,
+                                              String parameterName, String term) {
+        return bean(new AutocompleteTypingSampler(), name)
+                .property("protocol", protocol)
+                .property("domain", domain)
+                .property("port", String.valueOf(port))
+                .property("path", path)
+                .property("parameterName", parameterName)
+                .property("term", term)
+                .property("minPrefixLength", 2)
+                .property("keyDelayMedianMs", "${__P(typing.delay.median.ms,180)}")
+                .property("keyDelaySigma", 0.5)
+                .property("maxKeyDelayMs", 1500)
+                .property("cancelSuperseded", true)
+                .property("responseTimeoutMs", 10000)
+                .property("limiterName", "");
+    }
+
+    public static BeanNode multiPatternAssertion(String name, String failureMessage, String... patterns) {
+        return bean(new MultiPatternAssertion(), name)
+                .property("patterns", String.join("\n", patterns))
+                .property("matchMode", MultiPatternAssertion.MATCH_ALL)
+                .property("ignoreCase", false)
+                .property("encoding", "UTF-8")
+                .property("failureMessage", failureMessage)
+                .property("discardBodyOnSuccess", true);
+    }
+
+    public static BeanNode bean(AbstractTestElement element, String name) {
+        named(element, name, TEST_BEAN_GUI);
+        return new BeanNode(element);
+    }
+
+    private static void named(TestElement element, String name, String guiClass) {
+        element(element, name, guiClass);
+    }
+}
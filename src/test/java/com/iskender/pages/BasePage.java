@@ -1,12 +1,16 @@
 package com.iskender.pages;
 
 import com.iskender.utils.BrowserUtils;
+import com.iskender.utils.ConfigurationReader;
 import com.iskender.utils.Driver;
+import com.iskender.utils.PerformanceCollector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 
 public abstract class BasePage {
 
@@ -17,6 +21,31 @@ public abstract class BasePage {
         logger.info("Initialized page: " + this.getClass().getSimpleName());
     }
 
+    /**
+     * Condition that makes this page usable for its interactions. Pages override it with their key
+     * element or data instead of waiting for every image and third-party script to finish loading.
+     */
+    protected ExpectedCondition<?> readinessCondition() {
+        return BrowserUtils.domContentLoaded();
+    }
+
+    public void waitUntilReady() {
+        BrowserUtils.waitForCondition(readinessCondition(), ConfigurationReader.getTimeout());
+        logger.info("Page ready: " + this.getClass().getSimpleName());
+        // Collected once per document, at the point the page is usable
+        PerformanceCollector.captureNavigation(this.getClass().getSimpleName());
+    }
+
+    protected boolean isReady() {
+        try {
+            waitUntilReady();
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Page not ready: " + this.getClass().getSimpleName() + " - " + e.getMessage());
+            return false;
+        }
+    }
+
     // Common wait methods
     protected WebElement waitForVisibility(WebElement element, int timeout) {
         return BrowserUtils.waitForVisibility(element, timeout);
@@ -31,7 +60,6 @@ public abstract class BasePage {
         waitForClickability(element, 3);
         element.click();
         logger.info("Clicked on element: " + getElementInfo(element));
-        BrowserUtils.dismissCookiePopupIfPresent();
     }
 
     protected boolean isDisplayed(WebElement element) {
@@ -73,7 +101,7 @@ public abstract class BasePage {
     }
 
     protected void waitForPageLoad() {
-        BrowserUtils.waitForPageToLoad(10);
+        waitUntilReady();
     }
 
     // Helper method to get element info for logging
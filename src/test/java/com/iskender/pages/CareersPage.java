@@ -3,6 +3,8 @@ package com.iskender.pages;
 import com.iskender.utils.BrowserUtils;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 public class CareersPage extends BasePage {
 
@@ -15,6 +17,11 @@ public class CareersPage extends BasePage {
     @FindBy(xpath = "//h2[contains(text(), 'Life at Insider')]")
     private WebElement lifeAtInsiderSection;
 
+    @Override
+    protected ExpectedCondition<?> readinessCondition() {
+        return ExpectedConditions.visibilityOf(locationsSection);
+    }
+
     public boolean isLocationsVisible() {
         return isDisplayed(locationsSection);
     }
@@ -30,7 +37,7 @@ public class CareersPage extends BasePage {
     public void navigateToQualityAssurance() {
         String qualityAssuranceUrl="https://useinsider.com/careers/quality-assurance/";
         BrowserUtils.navigateTo(qualityAssuranceUrl);
-        waitForPageLoad();
+        new QualityAssurancePage().waitUntilReady();
     }
 
 }
\ No newline at end of file
@@ -1,8 +1,9 @@
 package com.iskender.pages;
 
-import com.iskender.utils.BrowserUtils;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 public class HomePage extends BasePage {
 
@@ -18,8 +19,13 @@ public class HomePage extends BasePage {
     @FindBy(xpath = "//div[@class='career-load-more']")
     private WebElement careerPage;
 
+    @Override
+    protected ExpectedCondition<?> readinessCondition() {
+        return ExpectedConditions.visibilityOf(logo);
+    }
+
     public boolean isLoaded() {
-        return isDisplayed(logo);
+        return isReady() && isDisplayed(logo);
     }
 
     public void hoverCompanyMenu() {
@@ -27,9 +33,8 @@ public class HomePage extends BasePage {
     }
 
     public void clickCareers() {
-        BrowserUtils.waitFor(1);
+        waitUntilReady();
         click(careersLink);
-        waitForPageLoad();
-        BrowserUtils.dismissCookiePopupIfPresent();
+        new CareersPage().waitUntilReady();
     }
 }
\ No newline at end of file
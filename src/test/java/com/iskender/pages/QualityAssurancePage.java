@@ -1,8 +1,11 @@
 package com.iskender.pages;
 
 import com.iskender.utils.BrowserUtils;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.util.List;
 
@@ -38,10 +41,18 @@ public class QualityAssurancePage extends BasePage {
     @FindBy(xpath = "//a[text()='View Role']")
     private List<WebElement> viewRoleButtons;
 
+    @Override
+    protected ExpectedCondition<?> readinessCondition() {
+        return ExpectedConditions.elementToBeClickable(seeAllQAJobsButton);
+    }
+
     public void clickSeeAllQAJobs() {
         scrollToElement(seeAllQAJobsButton);
         click(seeAllQAJobsButton);
-
+        // Open positions list is rendered by XHR; the location filter becomes usable once it is loaded
+        BrowserUtils.waitForCondition(ExpectedConditions.and(
+                BrowserUtils.ajaxIdle(),
+                ExpectedConditions.elementToBeClickable(locationFilter)), 10);
     }
 
     public void filterByLocation() {
@@ -51,7 +62,14 @@ public class QualityAssurancePage extends BasePage {
 
 
     public boolean areJobsVisible() {
-        waitFor(1); // Wait for jobs to load after filtering
+        // Wait for the filtered job list XHR instead of a fixed delay
+        try {
+            BrowserUtils.waitForCondition(ExpectedConditions.and(
+                    BrowserUtils.ajaxIdle(),
+                    driver -> !jobList.isEmpty()), 10);
+        } catch (TimeoutException e) {
+            logger.warn("Job list did not load after filtering: " + e.getMessage());
+        }
         return !jobList.isEmpty();
     }
 
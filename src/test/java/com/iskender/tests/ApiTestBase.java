@@ -1,12 +1,30 @@
 package com.iskender.tests;
 
 import com.iskender.utils.ConfigurationReader;
+import com.iskender.utils.FixtureCleaner;
+import com.iskender.utils.FlightRecording;
+import com.iskender.utils.JfrRestFilter;
+import com.iskender.utils.RateLimitFilter;
+import com.iskender.utils.ReportManager;
+import com.iskender.utils.SchemaValidator;
+import com.iskender.utils.SharedHttpClient;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.RestAssured;
+import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.annotations.*;
 import org.testng.asserts.SoftAssert;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 /**
  * Base class for API test automation
  * Contains common setup/teardown methods and utilities for API testing
@@ -14,46 +32,153 @@ import org.testng.asserts.SoftAssert;
 public class ApiTestBase extends TestBase {
 
     private static final Logger logger = LogManager.getLogger(ApiTestBase.class);
-    protected SoftAssert softAssert;
+    private static final int API_CONCURRENCY = ConfigurationReader.getIntProperty("api.concurrency", 8);
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService requestExecutor = Executors.newFixedThreadPool(API_CONCURRENCY, runnable -> {
+        Thread thread = new Thread(runnable, "api-request-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Parallel data providers run invocations of the same instance concurrently, so each thread collects its own
+    private final ThreadLocal<SoftAssert> softAssert = ThreadLocal.withInitial(SoftAssert::new);
 
     @BeforeClass
     public void setUpApi() {
         RestAssured.baseURI = ConfigurationReader.getApiBaseUrl();
         logger.info("API Base URI set to: " + RestAssured.baseURI);
+        // Global filters also pace the background fixture cleanup; registered once per JVM
+        synchronized (RestAssured.class) {
+            SharedHttpClient.install();
+            if (RestAssured.filters().stream().noneMatch(filter -> filter instanceof RateLimitFilter)) {
+                RestAssured.filters(new RateLimitFilter());
+            }
+            if (FlightRecording.isRecording() && RestAssured.filters().stream().noneMatch(filter -> filter instanceof JfrRestFilter)) {
+                RestAssured.filters(new JfrRestFilter());
+            }
+        }
         logInfo("API test class started: " + this.getClass().getSimpleName());
     }
 
     @BeforeMethod
     public void setUpApiTest() {
-        softAssert = new SoftAssert();
+        softAssert.set(new SoftAssert());
         logInfo("API test method setup completed");
     }
 
     @AfterMethod
     public void tearDownApiTest() {
         try {
-            softAssert.assertAll();
+            softAssert.get().assertAll();
         } catch (AssertionError e) {
             // Log the error but don't fail the teardown to avoid affecting other tests
             logger.error("Soft assertion failures in test: " + e.getMessage());
             // Don't re-throw - just log the failure to avoid breaking test suite
         } finally {
             // Reset softAssert for next test
-            softAssert = new SoftAssert();
+            softAssert.remove();
         }
         logInfo("API test method teardown completed");
     }
     
     @AfterClass
     public void tearDownApi() {
+        // Deletes run in the background while the next class starts
+        FixtureCleaner.cleanupAsync(this.getClass().getName());
         logger.info("API test class completed: " + this.getClass().getSimpleName());
         logInfo("API test class completed");
     }
 
+    @AfterSuite
+    public void tearDownApiSuite() {
+        FixtureCleaner.awaitCompletion(ConfigurationReader.getIntProperty("api.cleanup.timeout.seconds", 60));
+        ReportManager.addSystemInfo("API fixture cleanup", FixtureCleaner.getSummary());
+        logger.info("API rate limiting: " + RateLimitFilter.getSummary());
+        ReportManager.addSystemInfo("API rate limiting", RateLimitFilter.getSummary());
+    }
+
+    /**
+     * Registers a resource created by the test for deletion after the test class
+     * @param resourcePath path relative to the API base URI, e.g. "/pet/42"
+     */
+    protected void registerFixture(String resourcePath) {
+        FixtureCleaner.register(this.getClass().getName(), RestAssured.baseURI + resourcePath);
+    }
+
+    /**
+     * Removes a resource from cleanup after the test deleted it itself
+     */
+    protected void unregisterFixture(String resourcePath) {
+        FixtureCleaner.unregister(this.getClass().getName(), RestAssured.baseURI + resourcePath);
+    }
+
+    /**
+     * Sends independent requests concurrently and waits for all of them, so the wall-clock time is
+     * the slowest call rather than the sum. Assertions belong on the test thread after this returns.
+     * @param requests request calls, e.g. {@code () -> given().body(json).post("/pet")}
+     * @return responses in the same order as the requests
+     */
+    protected List<Response> sendConcurrently(List<Supplier<Response>> requests) {
+        logApiStep("Sending " + requests.size() + " requests concurrently");
+        long start = System.currentTimeMillis();
+
+        // Pool threads run no test of their own, their REST call events belong to this one
+        String testName = FlightRecording.currentTestName();
+        List<CompletableFuture<Response>> futures = new ArrayList<>();
+        for (Supplier<Response> request : requests) {
+            futures.add(CompletableFuture.supplyAsync(FlightRecording.withTestName(testName, request), requestExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Concurrent request failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<Response> responses = new ArrayList<>();
+        for (CompletableFuture<Response> future : futures) {
+            responses.add(future.join());
+        }
+        logApiInfo("Concurrent batch of " + requests.size() + " requests completed in " + (System.currentTimeMillis() - start) + " ms");
+        return responses;
+    }
+
+    /**
+     * Parses the response body once and hard-asserts it against a JSON schema from schemas/
+     * @param schemaName schema file name without extension, e.g. "pet"
+     * @return parsed body for further field checks
+     */
+    protected JsonNode verifyMatchesSchema(Response response, String schemaName) {
+        JsonNode body = SchemaValidator.parse(response.getBody().asString());
+        List<String> violations = SchemaValidator.validate(schemaName, body);
+        verifyTrue(violations.isEmpty(), "Response should match the '" + schemaName + "' schema"
+                + (violations.isEmpty() ? "" : " " + violations));
+        return body;
+    }
+
+    /**
+     * Soft variant of {@link #verifyMatchesSchema(Response, String)} for batches of responses
+     */
+    protected JsonNode verifySoftMatchesSchema(Response response, String schemaName) {
+        JsonNode body = SchemaValidator.parse(response.getBody().asString());
+        List<String> violations = SchemaValidator.validate(schemaName, body);
+        verifySoftTrue(violations.isEmpty(), "Response should match the '" + schemaName + "' schema"
+                + (violations.isEmpty() ? "" : " " + violations));
+        return body;
+    }
+
+    /**
+     * Fails the test with every soft assertion failure collected so far, then starts a fresh SoftAssert
+     */
+    protected void assertSoftAssertions() {
+        SoftAssert collected = softAssert.get();
+        softAssert.set(new SoftAssert());
+        collected.assertAll();
+    }
+
     // API-specific utility methods
     protected void logApiStep(String step) {
         logger.info("API STEP: " + step);
         logInfo("API STEP: " + step);
+        FlightRecording.step(step);
     }
 
     protected void logApiInfo(String message) {
@@ -74,19 +199,19 @@ public class ApiTestBase extends TestBase {
     // Soft assertion methods with logging
     protected void verifySoftTrue(boolean condition, String message) {
         logApiAssertion(message, condition);
-        softAssert.assertTrue(condition, message);
+        softAssert.get().assertTrue(condition, message);
     }
 
     protected void verifySoftEquals(Object actual, Object expected, String message) {
         boolean result = (actual != null && actual.equals(expected)) || 
                         (actual == null && expected == null);
         logApiAssertion(message + " [Expected: " + expected + ", Actual: " + actual + "]", result);
-        softAssert.assertEquals(actual, expected, message);
+        softAssert.get().assertEquals(actual, expected, message);
     }
 
     protected void verifySoftNotNull(Object object, String message) {
         boolean result = object != null;
         logApiAssertion(message, result);
-        softAssert.assertNotNull(object, message);
+        softAssert.get().assertNotNull(object, message);
     }
 }
\ No newline at end of file
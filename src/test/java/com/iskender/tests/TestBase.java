@@ -1,13 +1,21 @@
 package com.iskender.tests;
 
+import com.iskender.utils.BrowserOptionsFactory;
 import com.iskender.utils.ConfigurationReader;
 import com.iskender.utils.BrowserUtils;
 import com.iskender.utils.Driver;
+import com.iskender.utils.FlightRecording;
+import com.iskender.utils.NetworkOptimizer;
+import com.iskender.utils.PerformanceCollector;
+import com.iskender.utils.TestLogCapture;
+import com.iskender.utils.WebDriverCommandTracer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import com.iskender.utils.ReportManager;
 import com.iskender.pages.BasePage;
 import org.testng.Assert;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
@@ -15,8 +23,11 @@ import org.testng.annotations.Optional;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
-public class TestBase {
+public class TestBase implements IHookable {
 
     private static final Logger logger = LogManager.getLogger(TestBase.class);
 
@@ -24,6 +35,7 @@ public class TestBase {
     public void setUpSuite() {
         logger.info("=== TEST SUITE STARTED ===");
         ReportManager.initializeReport();
+        FlightRecording.start();
 
         // Create directories if they don't exist
         try {
@@ -51,7 +63,10 @@ public class TestBase {
 
     @BeforeMethod
     public void setUp(Method method) {
+        // Log lines of the test stay in memory until it is known whether it failed
+        TestLogCapture.start();
         String testName = method.getName();
+        FlightRecording.testStarted(this.getClass().getSimpleName(), testName);
         logger.info("========================================");
         logger.info("STARTING TEST: " + testName);
         logger.info("========================================");
@@ -61,11 +76,38 @@ public class TestBase {
         String description = testAnnotation != null ? testAnnotation.description() : "No description provided";
         ReportManager.createTest(testName, description);
 
+        if (isUITest()) {
+            NetworkOptimizer.resetStats();
+            PerformanceCollector.startTest(testName);
+            WebDriverCommandTracer.startTest(this.getClass().getSimpleName() + "." + testName);
+        }
+
         logger.info("Test setup completed for: " + testName);
         ReportManager.logInfo("Test setup completed");
 
     }
 
+    /**
+     * Runs the test method, then fails an otherwise passing UI test that exceeded a page performance
+     * budget, unless perf.budget.enforce=false. Thrown here the failure counts in TestNG's results;
+     * the teardown only reports the timings.
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        callBack.runTestMethod(testResult);
+        if (testResult.getThrowable() != null || !isUITest()
+                || !ConfigurationReader.getBooleanProperty("perf.budget.enforce", true)) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        for (PerformanceCollector.PageTiming timing : PerformanceCollector.getTestSamples()) {
+            violations.addAll(PerformanceCollector.checkBudgets(timing));
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Performance budget exceeded: " + String.join("; ", violations));
+        }
+    }
+
     @AfterMethod
     public void tearDown(ITestResult result) {
         String testName = result.getMethod().getMethodName();
@@ -98,6 +140,14 @@ public class TestBase {
             ReportManager.logFail("Failed to capture screenshot: " + e.getMessage());
         }
 
+        if (isUITest() && NetworkOptimizer.isActive()) {
+            logInfo("Network savings: " + NetworkOptimizer.getStats().summary());
+        }
+        if (isUITest()) {
+            reportPageTimings();
+            reportWebDriverCommands();
+        }
+
         String status = result.getStatus() == ITestResult.SUCCESS ? "PASSED" :
                 result.getStatus() == ITestResult.FAILURE ? "FAILED" : "SKIPPED";
 
@@ -108,6 +158,8 @@ public class TestBase {
         }
         logger.info("========================================");
         logger.info("Test teardown completed for: " + testName);
+        FlightRecording.testFinished(status);
+        TestLogCapture.finish(result);
     }
 
     @AfterClass
@@ -126,6 +178,19 @@ public class TestBase {
 
     @AfterSuite
     public void tearDownSuite() {
+        PerformanceCollector.writeTimeSeries();
+        WebDriverCommandTracer.writeReport();
+        if (WebDriverCommandTracer.isEnabled()) {
+            ReportManager.addSystemInfo("WebDriver commands", WebDriverCommandTracer.getSummary());
+        }
+        BrowserOptionsFactory.getStartupSummary().forEach((profile, stats) -> {
+            logger.info("Browser startup [" + profile + "]: " + stats);
+            ReportManager.addSystemInfo("Browser startup " + profile, stats);
+        });
+        Path recording = FlightRecording.stop();
+        if (recording != null) {
+            ReportManager.addSystemInfo("JFR recording", recording.toString());
+        }
         ReportManager.flushReports();
         logger.info("=== TEST SUITE COMPLETED ===");
     }
@@ -136,10 +201,58 @@ public class TestBase {
         return this.getClass().getPackage().getName().contains(".ui");
     }
 
+    private void reportPageTimings() {
+        List<PerformanceCollector.PageTiming> samples = PerformanceCollector.getTestSamples();
+        if (samples.isEmpty()) {
+            return;
+        }
+        String[][] rows = new String[samples.size() + 1][];
+        rows[0] = new String[]{"Page", "TTFB", "FCP", "LCP", "DOMContentLoaded", "Load", "Long tasks"};
+        for (int i = 0; i < samples.size(); i++) {
+            PerformanceCollector.PageTiming timing = samples.get(i);
+            rows[i + 1] = new String[]{timing.getPage(), formatMillis(timing.getTtfb()), formatMillis(timing.getFcp()),
+                    formatMillis(timing.getLcp()), formatMillis(timing.getDomContentLoaded()),
+                    formatMillis(timing.getLoad()), formatMillis(timing.getLongTaskTime())};
+            for (String violation : PerformanceCollector.checkBudgets(timing)) {
+                logWarning("PERFORMANCE BUDGET: " + violation);
+            }
+        }
+        ReportManager.logTable(rows);
+    }
+
+    private void reportWebDriverCommands() {
+        int top = ConfigurationReader.getIntProperty("webdriver.trace.top", 10);
+        List<WebDriverCommandTracer.CommandStats> commands = WebDriverCommandTracer.getTestCommands();
+        if (!commands.isEmpty()) {
+            long total = commands.stream().mapToLong(WebDriverCommandTracer.CommandStats::getCalls).sum();
+            logInfo("WebDriver commands: " + total + ", slowest in total:");
+            ReportManager.logTable(commandTable("Command", commands, top));
+            ReportManager.logTable(commandTable("Page method", WebDriverCommandTracer.getTestPageMethods(), top));
+        }
+        WebDriverCommandTracer.endTest();
+    }
+
+    private String[][] commandTable(String label, List<WebDriverCommandTracer.CommandStats> stats, int top) {
+        int size = Math.min(top, stats.size());
+        String[][] rows = new String[size + 1][];
+        rows[0] = new String[]{label, "Calls", "Total", "Avg", "Max", "Failed"};
+        for (int i = 0; i < size; i++) {
+            WebDriverCommandTracer.CommandStats command = stats.get(i);
+            rows[i + 1] = new String[]{command.getName(), String.valueOf(command.getCalls()), command.getTotalMillis() + " ms",
+                    command.getAvgMillis() + " ms", command.getMaxMillis() + " ms", String.valueOf(command.getFailures())};
+        }
+        return rows;
+    }
+
+    private String formatMillis(Double value) {
+        return value != null ? Math.round(value) + " ms" : "-";
+    }
+
     // Utility methods for test classes
     protected void logStep(String step) {
         logger.info("STEP: " + step);
         ReportManager.logInfo("STEP: " + step);
+        FlightRecording.step(step);
     }
 
     protected void logAssertion(String assertion, boolean result) {
@@ -195,6 +308,14 @@ public class TestBase {
         Assert.assertTrue(result, message);
     }
 
+    protected void verifyPerformanceBudgets() {
+        for (PerformanceCollector.PageTiming timing : PerformanceCollector.getTestSamples()) {
+            List<String> violations = PerformanceCollector.checkBudgets(timing);
+            verifyTrue(violations.isEmpty(), "Page performance within budget for " + timing.getPage()
+                    + (violations.isEmpty() ? "" : " " + violations));
+        }
+    }
+
     // Common browser interaction methods
     protected void navigateToUrl(String url) {
         logStep("Navigating to URL: " + url);
@@ -207,9 +328,10 @@ public class TestBase {
         BrowserUtils.navigateTo(baseUrl);
     }
 
-    protected void waitForPageLoad() {
-        logStep("Waiting for page to load");
-        BrowserUtils.waitForPageToLoad(10);
+    // Waits for the page object's own readiness condition, not for every resource of the document
+    protected void waitForPageLoad(BasePage page) {
+        logStep("Waiting for " + page.getClass().getSimpleName() + " to be ready");
+        page.waitUntilReady();
     }
 
     protected void waitForSeconds(int seconds) {
@@ -0,0 +1,430 @@
+package com.iskender.tests.load;
+
+import com.iskender.load.dsl.EmbeddedJMeter;
+import org.apache.jmeter.control.TransactionController;
+import org.apache.jmeter.engine.StandardJMeterEngine;
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestElement;
+import org.apache.jorphan.collections.HashTree;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Finds the offered load at which the N11 search scenario saturates. The load is stepped up by
+ * doubling the target rate until a step fails, then the last passing and the first failing rate
+ * are narrowed down by binary search. Each step runs N11SearchScenario embedded, paced by a shared
+ * Constant Throughput Timer, and is held until the p99 of the last few windows stabilizes (or the
+ * maximum hold time passed); only those windows are measured.
+ *
+ * A step fails when the p99 of the gated transaction exceeds --max-p99-ms, the error rate exceeds
+ * --max-error-rate, or the achieved rate falls below --min-achieved of the offered rate (the
+ * system cannot keep up). A rate missed while latency stayed flat is retried with twice the users,
+ * as the threads were then busy thinking and typing. The knee is the highest passing rate. The
+ * throughput / latency curve is written as CSV and Markdown next to the step JTLs.
+ *
+ * Rates are requests per second of the top-level samplers (homepage, typed autocomplete session,
+ * search), i.e. transactions per second.
+ *
+ * Usage: mvn exec:java@capacity-sweep -Dexec.args="--domain=... [options]"
+ *        [--start-rps=1] [--max-rps=256] [--resolution=0.1] [--max-steps=16] [--users-per-rps=4]
+ *        [--ramp-up=10] [--window=10] [--min-hold=60] [--max-hold=300] [--stable-windows=3]
+ *        [--stability=0.15] [--label=Search Results Request] [--max-p99-ms=3000]
+ *        [--max-error-rate=0.01] [--min-achieved=0.9] [--protocol=https] [--domain=www.n11.com]
+ *        [--port=443] [--mix=50,20,20,10] [--out=target/jmeter/results/capacity]
+ */
+public class CapacitySweep {
+
+    private final Map<String, String> options;
+    private final int usersPerRps;
+    private final int rampUpSeconds;
+    private final int windowSeconds;
+    private final int minHoldSeconds;
+    private final int maxHoldSeconds;
+    private final int stableWindows;
+    private final double stability;
+    private final String gateLabel;
+    private final double maxP99Ms;
+    private final double maxErrorRate;
+    private final double minAchieved;
+    private final Path out;
+
+    private final List<Step> steps = new ArrayList<>();
+
+    public CapacitySweep(Map<String, String> options) {
+        this.options = options;
+        this.usersPerRps = Integer.parseInt(options.getOrDefault("users-per-rps", "4"));
+        this.rampUpSeconds = Integer.parseInt(options.getOrDefault("ramp-up", "10"));
+        this.windowSeconds = Integer.parseInt(options.getOrDefault("window", "10"));
+        this.minHoldSeconds = Integer.parseInt(options.getOrDefault("min-hold", "60"));
+        this.maxHoldSeconds = Integer.parseInt(options.getOrDefault("max-hold", "300"));
+        this.stableWindows = Integer.parseInt(options.getOrDefault("stable-windows", "3"));
+        this.stability = Double.parseDouble(options.getOrDefault("stability", "0.15"));
+        this.gateLabel = options.getOrDefault("label", "Search Results Request");
+        this.maxP99Ms = Double.parseDouble(options.getOrDefault("max-p99-ms", "3000"));
+        this.maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        this.minAchieved = Double.parseDouble(options.getOrDefault("min-achieved", "0.9"));
+        this.out = Paths.get(options.getOrDefault("out", "target/jmeter/results/capacity"));
+    }
+
+    /**
+     * @return the highest passing rate, 0 if even the start rate failed
+     */
+    public double sweep() throws Exception {
+        double startRps = Double.parseDouble(options.getOrDefault("start-rps", "1"));
+        double maxRps = Double.parseDouble(options.getOrDefault("max-rps", "256"));
+        double resolution = Double.parseDouble(options.getOrDefault("resolution", "0.1"));
+        int maxSteps = Integer.parseInt(options.getOrDefault("max-steps", "16"));
+
+        double passed = 0;
+        double failed = 0;
+        // Doubling until the first failure
+        for (double rps = startRps; rps <= maxRps && steps.size() < maxSteps; rps *= 2) {
+            if (runStep(rps).passed()) {
+                passed = rps;
+            } else {
+                failed = rps;
+                break;
+            }
+        }
+        // Binary search between the last passing and the first failing rate
+        while (failed > 0 && passed > 0 && (failed - passed) / passed > resolution && steps.size() < maxSteps) {
+            double rps = Math.round((passed + failed) / 2 * 100) / 100.0;
+            if (runStep(rps).passed()) {
+                passed = rps;
+            } else {
+                failed = rps;
+            }
+        }
+        writeReport(passed, failed);
+        return passed;
+    }
+
+    /**
+     * Runs the rate, with twice the users (up to two times) when it was missed while latency stayed
+     * flat: then the threads were busy with think times and typing, not waiting for the server. Only
+     * the last attempt counts as the step; the JTLs of the earlier ones are kept.
+     */
+    private Step runStep(double rps) throws Exception {
+        int users = Math.max(1, (int) Math.ceil(rps * usersPerRps));
+        for (int attempt = 1; ; attempt++) {
+            Step step = runStep(rps, users);
+            if (attempt == 3 || !isGeneratorBound(step)) {
+                steps.add(step);
+                System.out.printf(Locale.ROOT, "Step %d: %s%n", steps.size(), step.summary());
+                return step;
+            }
+            System.out.printf(Locale.ROOT, "Step %d attempt %d: %s%n", steps.size() + 1, attempt, step.summary());
+            users *= 2;
+            System.out.printf(Locale.ROOT, "Rate missed with flat latency, retrying with %d users%n", users);
+        }
+    }
+
+    private boolean isGeneratorBound(Step step) {
+        if (!step.verdict().equals("fail: throughput")) {
+            return false;
+        }
+        double reference = steps.stream().filter(Step::passed).mapToDouble(passed -> passed.p99).min().orElse(step.p99);
+        return step.p99 <= reference * 1.5;
+    }
+
+    private Step runStep(double rps, int users) throws Exception {
+        System.out.printf(Locale.ROOT, "Step %d: %.2f req/s with %d users%n", steps.size() + 1, rps, users);
+        N11SearchScenario scenario = N11SearchScenario.fromOptions(options)
+                .users(users)
+                .rampUp(rampUpSeconds)
+                .duration(rampUpSeconds + maxHoldSeconds)
+                .samplesPerMinute(rps * 60);
+        scenario.loadProperties().forEach(EmbeddedJMeter::setProperty);
+        HashTree tree = scenario.build();
+        StepMonitor monitor = new StepMonitor();
+        tree.add(tree.getArray()[0], monitor);
+
+        Path results = out.resolve(String.format(Locale.ROOT, "step-%02d-%s-rps-%d-users.csv", steps.size() + 1, format(rps), users));
+        StandardJMeterEngine engine = EmbeddedJMeter.start(tree, N11SearchScenario.planDirectory(), results);
+        long measureFrom = System.currentTimeMillis() + rampUpSeconds * 1000L;
+        List<Window> windows = new ArrayList<>();
+        boolean stable = false;
+        while (engine.isActive()) {
+            Thread.sleep(1000);
+            long now = System.currentTimeMillis();
+            // One second of grace for samples that ended in the window but are still being notified
+            if (now - measureFrom < (windows.size() + 1) * windowSeconds * 1000L + 1000) {
+                continue;
+            }
+            long start = measureFrom + windows.size() * windowSeconds * 1000L;
+            windows.add(new Window(monitor.samplesBetween(start, start + windowSeconds * 1000L), windowSeconds, gateLabel));
+            int heldSeconds = windows.size() * windowSeconds;
+            stable = heldSeconds >= minHoldSeconds && isStable(windows);
+            if (stable || heldSeconds >= maxHoldSeconds) {
+                break;
+            }
+        }
+        engine.stopTest(false);
+        try {
+            engine.awaitTermination(Duration.ofSeconds(120));
+        } catch (TimeoutException e) {
+            engine.stopTest(true);
+            engine.awaitTermination(Duration.ofSeconds(30));
+        }
+
+        List<Window> measured = windows.subList(Math.max(0, windows.size() - stableWindows), windows.size());
+        return new Step(rps, users, windows.size() * windowSeconds, stable, measured);
+    }
+
+    /**
+     * p99 of the last windows within +-stability of their mean
+     */
+    private boolean isStable(List<Window> windows) {
+        if (windows.size() < stableWindows) {
+            return false;
+        }
+        double[] p99s = windows.subList(windows.size() - stableWindows, windows.size()).stream()
+                .mapToDouble(window -> window.percentile(0.99)).toArray();
+        double mean = Arrays.stream(p99s).average().orElse(0);
+        double max = Arrays.stream(p99s).max().orElse(0);
+        double min = Arrays.stream(p99s).min().orElse(0);
+        return mean > 0 && (max - mean) / mean <= stability && (mean - min) / mean <= stability;
+    }
+
+    /**
+     * One sampled transaction: label, end time, elapsed and outcome
+     */
+    private static class Sample {
+        private final String label;
+        private final long endTime;
+        private final long elapsed;
+        private final boolean success;
+
+        Sample(SampleResult result) {
+            this.label = result.getSampleLabel();
+            this.endTime = result.getEndTime();
+            this.elapsed = result.getTime();
+            this.success = result.isSuccessful();
+        }
+    }
+
+    /**
+     * Listener at test plan level that collects the transaction samples of the running step
+     */
+    static class StepMonitor extends AbstractTestElement implements SampleListener, NoThreadClone {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Sample> samples = new ArrayList<>();
+
+        StepMonitor() {
+            setName("Capacity Sweep Monitor");
+            setProperty(TestElement.TEST_CLASS, CapacitySweep.StepMonitor.class.getName());
+        }
+
+        /**
+         * Plan conversion clones the tree, keep this instance so the sweep sees the samples
+         */
+        @Override
+        public Object clone() {
+            return this;
+        }
+
+        @Override
+        public void sampleOccurred(SampleEvent event) {
+            // The transaction sample carries the requests as sub-results, count only those. The flow
+            // transactions of a traffic mix report an extra summary sample per flow, which is not a request
+            if (!event.isTransactionSampleEvent() && TransactionController.isFromTransactionController(event.getResult())) {
+                synchronized (samples) {
+                    samples.add(new Sample(event.getResult()));
+                }
+            }
+        }
+
+        @Override
+        public void sampleStarted(SampleEvent event) {
+            // Not used
+        }
+
+        @Override
+        public void sampleStopped(SampleEvent event) {
+            // Not used
+        }
+
+        List<Sample> samplesBetween(long from, long to) {
+            List<Sample> selected = new ArrayList<>();
+            synchronized (samples) {
+                for (Sample sample : samples) {
+                    if (sample.endTime >= from && sample.endTime < to) {
+                        selected.add(sample);
+                    }
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * Samples that ended within one measurement window
+     */
+    private static class Window {
+        private final int seconds;
+        private final int transactions;
+        private final int errors;
+        private final long[] gatedElapsed;
+
+        Window(List<Sample> samples, int seconds, String gateLabel) {
+            this.seconds = seconds;
+            this.transactions = samples.size();
+            this.errors = (int) samples.stream().filter(sample -> !sample.success).count();
+            this.gatedElapsed = samples.stream()
+                    .filter(sample -> gateLabel.isEmpty() || gateLabel.equals(sample.label))
+                    .mapToLong(sample -> sample.elapsed)
+                    .sorted()
+                    .toArray();
+        }
+
+        double percentile(double quantile) {
+            return CapacitySweep.percentile(gatedElapsed, quantile);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    /**
+     * Outcome of one load step over its measured windows
+     */
+    private class Step {
+        private final double offeredRps;
+        private final int users;
+        private final int heldSeconds;
+        private final boolean stable;
+        private final double achievedRps;
+        private final double errorRate;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final long gatedSamples;
+
+        Step(double offeredRps, int users, int heldSeconds, boolean stable, List<Window> windows) {
+            this.offeredRps = offeredRps;
+            this.users = users;
+            this.heldSeconds = heldSeconds;
+            this.stable = stable;
+            long transactions = windows.stream().mapToLong(window -> window.transactions).sum();
+            long errors = windows.stream().mapToLong(window -> window.errors).sum();
+            long seconds = windows.stream().mapToLong(window -> window.seconds).sum();
+            this.achievedRps = seconds == 0 ? 0 : (double) transactions / seconds;
+            this.errorRate = transactions == 0 ? 0 : (double) errors / transactions;
+            long[] elapsed = windows.stream().flatMapToLong(window -> Arrays.stream(window.gatedElapsed)).sorted().toArray();
+            this.gatedSamples = elapsed.length;
+            this.p50 = percentile(elapsed, 0.50);
+            this.p95 = percentile(elapsed, 0.95);
+            this.p99 = percentile(elapsed, 0.99);
+        }
+
+        boolean passed() {
+            return verdict().equals("pass");
+        }
+
+        String verdict() {
+            List<String> reasons = new ArrayList<>();
+            if (gatedSamples == 0) {
+                reasons.add("no samples");
+            }
+            if (p99 > maxP99Ms) {
+                reasons.add("p99");
+            }
+            if (errorRate > maxErrorRate) {
+                reasons.add("errors");
+            }
+            if (achievedRps < offeredRps * minAchieved) {
+                reasons.add("throughput");
+            }
+            return reasons.isEmpty() ? "pass" : "fail: " + String.join(", ", reasons);
+        }
+
+        String summary() {
+            return String.format(Locale.ROOT, "offered %.2f req/s, achieved %.2f req/s, p50 %.0f ms, p95 %.0f ms, "
+                            + "p99 %.0f ms, errors %.2f%%, %s after %d s -> %s", offeredRps, achievedRps, p50, p95, p99,
+                    errorRate * 100, stable ? "stable" : "not stable", heldSeconds, verdict());
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%.2f,%d,%.2f,%.0f,%.0f,%.0f,%.4f,%d,%b,%d,%s", offeredRps, users,
+                    achievedRps, p50, p95, p99, errorRate, gatedSamples, stable, heldSeconds, verdict());
+        }
+    }
+
+    private void writeReport(double knee, double firstFailure) throws IOException {
+        Files.createDirectories(out);
+        List<Step> byRate = new ArrayList<>(steps);
+        byRate.sort((a, b) -> Double.compare(a.offeredRps, b.offeredRps));
+
+        try (PrintWriter csv = new PrintWriter(out.resolve("capacity-sweep.csv").toFile(), StandardCharsets.UTF_8.name())) {
+            csv.println("offered_rps,users,achieved_rps,p50_ms,p95_ms,p99_ms,error_rate,gated_samples,stable,held_s,verdict");
+            byRate.forEach(step -> csv.println(step.toCsv()));
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Capacity Sweep");
+        lines.add("");
+        lines.add(String.format(Locale.ROOT, "Gate: p99 of `%s` <= %.0f ms, error rate <= %.2f%%, achieved >= %.0f%% of offered.",
+                gateLabel.isEmpty() ? "all transactions" : gateLabel, maxP99Ms, maxErrorRate * 100, minAchieved * 100));
+        lines.add("");
+        if (knee == 0) {
+            lines.add("**Knee:** not found, the first step already failed; lower --start-rps.");
+        } else if (firstFailure == 0) {
+            lines.add(String.format(Locale.ROOT, "**Knee:** above %s req/s, no step failed; raise --max-rps.", format(knee)));
+        } else {
+            lines.add(String.format(Locale.ROOT, "**Knee:** %s req/s passes, %s req/s fails.", format(knee), format(firstFailure)));
+        }
+        lines.add("");
+        lines.add("| Offered req/s | Users | Achieved req/s | p50 ms | p95 ms | p99 ms | Errors | Stable | Held s | Verdict |");
+        lines.add("|---|---|---|---|---|---|---|---|---|---|");
+        for (Step step : byRate) {
+            lines.add(String.format(Locale.ROOT, "| %.2f | %d | %.2f | %.0f | %.0f | %.0f | %.2f%% | %s | %d | %s |",
+                    step.offeredRps, step.users, step.achievedRps, step.p50, step.p95, step.p99, step.errorRate * 100,
+                    step.stable ? "yes" : "no", step.heldSeconds, step.verdict()));
+        }
+        Files.write(out.resolve("capacity-sweep.md"), lines, StandardCharsets.UTF_8);
+        lines.forEach(System.out::println);
+        System.out.println("Capacity report written to " + out.toAbsolutePath().resolve("capacity-sweep.md"));
+    }
+
+    private static String format(double rps) {
+        return rps == Math.rint(rps) ? String.valueOf((long) rps) : String.format(Locale.ROOT, "%.2f", rps);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (EmbeddedJMeter.relaunchIfNeeded(CapacitySweep.class, args)) {
+            return;
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        EmbeddedJMeter.initialize();
+        new CapacitySweep(options).sweep();
+    }
+}
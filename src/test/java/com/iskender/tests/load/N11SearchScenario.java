@@ -0,0 +1,376 @@
+package com.iskender.tests.load;
+
+import com.iskender.load.dsl.EmbeddedJMeter;
+import com.iskender.load.dsl.JMeterDsl.Node;
+import org.apache.jorphan.collections.HashTree;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.iskender.load.dsl.JMeterDsl.autocompleteTyping;
+import static com.iskender.load.dsl.JMeterDsl.cacheManager;
+import static com.iskender.load.dsl.JMeterDsl.connectionPhases;
+import static com.iskender.load.dsl.JMeterDsl.cookieManager;
+import static com.iskender.load.dsl.JMeterDsl.datasetFeeder;
+import static com.iskender.load.dsl.JMeterDsl.dnsCacheManager;
+import static com.iskender.load.dsl.JMeterDsl.failureReservoir;
+import static com.iskender.load.dsl.JMeterDsl.flowTransaction;
+import static com.iskender.load.dsl.JMeterDsl.generatorHealth;
+import static com.iskender.load.dsl.JMeterDsl.headers;
+import static com.iskender.load.dsl.JMeterDsl.httpGet;
+import static com.iskender.load.dsl.JMeterDsl.maxDuration;
+import static com.iskender.load.dsl.JMeterDsl.multiPatternAssertion;
+import static com.iskender.load.dsl.JMeterDsl.pacing;
+import static com.iskender.load.dsl.JMeterDsl.rateLimit;
+import static com.iskender.load.dsl.JMeterDsl.responseCode;
+import static com.iskender.load.dsl.JMeterDsl.testPlan;
+import static com.iskender.load.dsl.JMeterDsl.threadGroup;
+import static com.iskender.load.dsl.JMeterDsl.throughput;
+import static com.iskender.load.dsl.JMeterDsl.transaction;
+import static com.iskender.load.dsl.JMeterDsl.uniformRandomTimer;
+import static com.iskender.load.dsl.JMeterDsl.weightedSwitch;
+
+/**
+ * The N11 search load test (homepage, typed autocomplete, search results) defined in code, with
+ * users, ramp-up, iterations or duration, target rate and host as parameters. This is the only
+ * definition of the plan: the build exports it to target/load-plans/N11_Search_LoadTest.jmx for the
+ * jmeter-maven-plugin run and the JMeter GUI, and the same plan runs embedded. With --mix the
+ * iterations are spread over weighted user flows instead (see {@link #mix(double, double, double, double, int)}),
+ * each optionally paced to one start every so many seconds per thread (see {@link #flowPacing(double...)}).
+ *
+ * Usage: java -cp target/test-classes:... com.iskender.tests.load.N11SearchScenario
+ *        [--users=1] [--ramp-up=1] [--iterations=5] [--duration=0] [--samples-per-minute=0]
+ *        [--rate-limit-rps=0] [--rate-limit-burst=1]
+ *        [--protocol=https] [--domain=www.n11.com] [--port=443] [--mix=50,20,20,10] [--pages=3]
+ *        (--mix=50:6,20:10,20:20,10:30 paces each flow to one start every 6, 10, 20 and 30 seconds)
+ *        [--export=path.jmx] [--run=true] [--results=target/jmeter/results/N11SearchScenario.csv]
+ * (mvn exec:java@load-scenario -Dexec.args="--users=10 --duration=300")
+ */
+public class N11SearchScenario {
+
+    // Generated by the build next to the exported plan, with the datasets it reads
+    private static final Path PLAN_DIR = Paths.get("target", "load-plans");
+
+    // JMeter properties the thread group is sized by, as in the soak profile or with -J on the CLI
+    private static final String USERS_PROPERTY = "load.users";
+    private static final String RAMP_UP_PROPERTY = "load.ramp.up";
+    private static final String ITERATIONS_PROPERTY = "load.iterations";
+    private static final String DURATION_PROPERTY = "load.duration";
+    // The scheduler stays on so load.duration can be set later; a day is "until the iterations are done"
+    private static final long UNTIL_ITERATIONS_DONE = 86400;
+    private static final String LIMITER = "${BASE_DOMAIN}";
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/132.0.0.0 Safari/537.36";
+    private static final String HTML_ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,"
+            + "image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7";
+
+    private int users = 1;
+    private int rampUpSeconds = 1;
+    private int iterations = 5;
+    private long durationSeconds;
+    private double samplesPerMinute;
+    private double maxSamplesPerSecond;
+    private int burst = 1;
+    private String protocol = "https";
+    private String domain = "www.n11.com";
+    private int port = 443;
+    private double[] mix;
+    private double[] pacing = new double[4];
+    private int pages;
+
+    public N11SearchScenario users(int users) {
+        this.users = users;
+        return this;
+    }
+
+    public N11SearchScenario rampUp(int seconds) {
+        this.rampUpSeconds = seconds;
+        return this;
+    }
+
+    public N11SearchScenario iterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Runs until the duration has passed, regardless of iterations; 0 runs the iterations only
+     */
+    public N11SearchScenario duration(long seconds) {
+        this.durationSeconds = seconds;
+        return this;
+    }
+
+    /**
+     * Paces the thread group to this many samples per minute in total; 0 runs unthrottled
+     */
+    public N11SearchScenario samplesPerMinute(double samplesPerMinute) {
+        this.samplesPerMinute = samplesPerMinute;
+        return this;
+    }
+
+    /**
+     * Ceiling for requests to the target, shared by all threads; 0 for no limit
+     */
+    public N11SearchScenario maxRate(double samplesPerSecond, int burst) {
+        this.maxSamplesPerSecond = samplesPerSecond;
+        this.burst = burst;
+        return this;
+    }
+
+    public N11SearchScenario target(String protocol, String domain, int port) {
+        this.protocol = protocol;
+        this.domain = domain;
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Replaces the linear homepage, autocomplete, search script with a traffic mix: every iteration
+     * runs one flow, chosen by weight. Flows: browse (homepage only), autocomplete without searching,
+     * search (the linear script), and search with pagination through the given number of pages.
+     */
+    public N11SearchScenario mix(double browse, double autocomplete, double search, double paginate, int pages) {
+        this.mix = new double[]{browse, autocomplete, search, paginate};
+        this.pages = pages;
+        return this;
+    }
+
+    /**
+     * Seconds between two starts of the browse, autocomplete, search and paginate flow on one thread;
+     * 0 leaves a flow unpaced. A flow that takes longer than its pacing starts again right away.
+     */
+    public N11SearchScenario flowPacing(double... browseAutocompleteSearchPaginate) {
+        this.pacing = browseAutocompleteSearchPaginate.clone();
+        return this;
+    }
+
+    public HashTree build() {
+        String host = "${BASE_DOMAIN}";
+        String origin = protocol + "://" + host + (isDefaultPort() ? "" : ":" + port);
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put("BASE_DOMAIN", domain);
+
+        Node[] script = mix == null
+                ? new Node[]{homepage(host), suggestion(host, origin), searchResults(host, origin)}
+                : new Node[]{trafficMix(host, origin)};
+        return testPlan("N11 Search Load Test", variables,
+                cookieManager("HTTP Cookie Manager"),
+                cacheManager("HTTP Cache Manager"),
+                dnsCacheManager("DNS Cache Manager"),
+                generatorHealth("Generator Health", 10, 300)
+                        .property("intervalSeconds", "${__P(health.interval.seconds,10)}")
+                        .property("warmupSeconds", "${__P(health.warmup.seconds,300)}")
+                        .property("reportFile", "${__P(health.report.file,generator_health.csv)}")
+                        .property("summaryFile", "${__P(health.summary.file,generator_health.md)}"),
+                threadGroup("N11 Search Test Users", property(USERS_PROPERTY), property(RAMP_UP_PROPERTY),
+                        property(ITERATIONS_PROPERTY), property(DURATION_PROPERTY),
+                        samplesPerMinute > 0 ? throughput("Target Rate", samplesPerMinute) : null,
+                        maxSamplesPerSecond > 0 ? rateLimit("Rate Limit", LIMITER, maxSamplesPerSecond, burst) : null,
+                        datasetFeeder("Search Terms Dataset", "${__P(search.terms.file,search_terms_workload.csv)}"),
+                        connectionPhases("Connection Phases", "${__P(phase.report.file,connection_phases.csv)}"),
+                        failureReservoir("Failure Reservoir", "${__P(failure.reservoir.dir,failures)}"))
+                        .children(script))
+                .toTree();
+    }
+
+    /**
+     * Values of the load.* properties for this scenario. The plan reads the properties with these
+     * values as defaults, so an exported plan can still be resized with -J or propertiesUser; embedded
+     * runs set them, as user.properties of the JMeter installation may hold values from another run.
+     */
+    public Map<String, String> loadProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put(USERS_PROPERTY, String.valueOf(users));
+        properties.put(RAMP_UP_PROPERTY, String.valueOf(rampUpSeconds));
+        properties.put(ITERATIONS_PROPERTY, String.valueOf(durationSeconds > 0 ? -1 : iterations));
+        properties.put(DURATION_PROPERTY, String.valueOf(durationSeconds > 0 ? durationSeconds : UNTIL_ITERATIONS_DONE));
+        return properties;
+    }
+
+    private String property(String name) {
+        return "${__P(" + name + "," + loadProperties().get(name) + ")}";
+    }
+
+    /**
+     * One flow transaction per mix entry, so the JTL has a sample per flow next to the per-request
+     * transactions that the flows share
+     */
+    private Node trafficMix(String host, String origin) {
+        List<Node> pagination = new ArrayList<>();
+        pagination.add(searchResults(host, origin));
+        for (int page = 2; page <= pages; page++) {
+            pagination.add(resultsPage(host, origin, page));
+        }
+        return weightedSwitch("Traffic Mix", "flow")
+                .child(mix[0], flowTransaction("Browse Flow", homepage(host, pacing[0])))
+                .child(mix[1], flowTransaction("Autocomplete Flow", homepage(host, pacing[1]), suggestion(host, origin)))
+                .child(mix[2], flowTransaction("Search Flow", homepage(host, pacing[2]), suggestion(host, origin), searchResults(host, origin)))
+                .child(mix[3], flowTransaction("Paginate Flow", homepage(host, pacing[3])).children(pagination.toArray(new Node[0])));
+    }
+
+    private Node homepage(String host) {
+        return homepage(host, 0);
+    }
+
+    /**
+     * The homepage starts every flow, so a pacing timer scoped to its sampler paces the whole flow
+     */
+    private Node homepage(String host, double pacingSeconds) {
+        return transaction("Homepage Access",
+                httpGet("N11 Homepage", protocol, host, port, "/").children(
+                        headers("Homepage Headers", navigationHeaders(null)),
+                        responseCode("Homepage Success", "200", "Homepage should load successfully"),
+                        pacingSeconds > 0 ? pacing("Flow Pacing", pacingSeconds) : null),
+                uniformRandomTimer("User Browse Time", 1500, 2500));
+    }
+
+    private Node suggestion(String host, String origin) {
+        return transaction("Search Suggestion Request",
+                autocompleteTyping("Get Autocomplete", protocol, host, port, "/arama/tamamla",
+                        "keyword", "${search_term}")
+                        // The timer permits the typing session once, every further keystroke takes its own
+                        .property("limiterName", maxSamplesPerSecond > 0 ? LIMITER : "")
+                        .children(
+                                headers("AJAX Request Headers", ajaxHeaders(origin + "/")),
+                                responseCode("Autocomplete Success", "200", "Autocomplete should return suggestions")));
+    }
+
+    private Node searchResults(String host, String origin) {
+        return transaction("Search Results Request",
+                httpGet("Execute Search", protocol, host, port, "/arama")
+                        .query("q", "${search_term}")
+                        .encoding("UTF-8")
+                        .children(
+                                headers("Search Page Headers", navigationHeaders(origin + "/")),
+                                responseCode("Search Success Code", "200", "Search should return 200 OK response"),
+                                multiPatternAssertion("Search Results Content",
+                                        "Search results should contain products", "product", "sonuç"),
+                                maxDuration("Performance Requirement", 5000)));
+    }
+
+    private Node resultsPage(String host, String origin, int page) {
+        return transaction("Search Results Page",
+                uniformRandomTimer("Results Reading Time", 2000, 3000),
+                httpGet("Next Results Page", protocol, host, port, "/arama")
+                        .query("q", "${search_term}")
+                        .query("pg", String.valueOf(page))
+                        .encoding("UTF-8")
+                        .children(
+                                headers("Search Page Headers", navigationHeaders(origin + "/arama")),
+                                responseCode("Results Page Success", "200", "Results page should return 200 OK response"),
+                                maxDuration("Performance Requirement", 5000)));
+    }
+
+    private boolean isDefaultPort() {
+        return ("https".equals(protocol) && port == 443) || ("http".equals(protocol) && port == 80);
+    }
+
+    private Map<String, String> browserHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept-Encoding", "gzip, deflate, br, zstd");
+        headers.put("Accept-Language", "tr-TR,tr;q=0.9,en-US;q=0.8,en;q=0.7");
+        headers.put("Connection", "keep-alive");
+        headers.put("Host", isDefaultPort() ? "${BASE_DOMAIN}" : "${BASE_DOMAIN}:" + port);
+        headers.put("User-Agent", USER_AGENT);
+        headers.put("sec-ch-ua", "\"Not A(Brand\";v=\"8\", \"Chromium\";v=\"132\", \"Google Chrome\";v=\"132\"");
+        headers.put("sec-ch-ua-mobile", "?0");
+        headers.put("sec-ch-ua-platform", "\"Windows\"");
+        return headers;
+    }
+
+    private Map<String, String> navigationHeaders(String referer) {
+        Map<String, String> headers = browserHeaders();
+        headers.put("Accept", HTML_ACCEPT);
+        headers.put("Cache-Control", "max-age=0");
+        if (referer != null) {
+            headers.put("Referer", referer);
+        }
+        headers.put("Sec-Fetch-Dest", "document");
+        headers.put("Sec-Fetch-Mode", "navigate");
+        headers.put("Sec-Fetch-Site", "same-origin");
+        headers.put("Sec-Fetch-User", "?1");
+        headers.put("Upgrade-Insecure-Requests", "1");
+        return headers;
+    }
+
+    private Map<String, String> ajaxHeaders(String referer) {
+        Map<String, String> headers = browserHeaders();
+        headers.put("ADRUM", "isAjax:true");
+        headers.put("Accept", "application/json, text/javascript, */*; q=0.01");
+        headers.put("Referer", referer);
+        headers.put("Sec-Fetch-Dest", "empty");
+        headers.put("Sec-Fetch-Mode", "cors");
+        headers.put("Sec-Fetch-Site", "same-origin");
+        headers.put("X-KL-saas-Ajax-Request", "Ajax_Request");
+        headers.put("X-Requested-With", "XMLHttpRequest");
+        return headers;
+    }
+
+    /**
+     * Reads the scenario parameters shared by the load tools from --key=value options
+     */
+    public static N11SearchScenario fromOptions(Map<String, String> options) {
+        N11SearchScenario scenario = new N11SearchScenario()
+                .users(Integer.parseInt(options.getOrDefault("users", "1")))
+                .rampUp(Integer.parseInt(options.getOrDefault("ramp-up", "1")))
+                .iterations(Integer.parseInt(options.getOrDefault("iterations", "5")))
+                .duration(Long.parseLong(options.getOrDefault("duration", "0")))
+                .samplesPerMinute(Double.parseDouble(options.getOrDefault("samples-per-minute", "0")))
+                .maxRate(Double.parseDouble(options.getOrDefault("rate-limit-rps", "0")),
+                        Integer.parseInt(options.getOrDefault("rate-limit-burst", "1")))
+                .target(options.getOrDefault("protocol", "https"), options.getOrDefault("domain", "www.n11.com"),
+                        Integer.parseInt(options.getOrDefault("port", "443")));
+        if (options.containsKey("mix")) {
+            // weight[:pacing seconds] per flow
+            String[] entries = options.get("mix").split(",");
+            if (entries.length != 4) {
+                throw new IllegalArgumentException("--mix expects browse,autocomplete,search,paginate weights: " + options.get("mix"));
+            }
+            double[] weights = new double[4];
+            double[] pacing = new double[4];
+            for (int flow = 0; flow < 4; flow++) {
+                String[] entry = entries[flow].split(":");
+                weights[flow] = Double.parseDouble(entry[0]);
+                pacing[flow] = entry.length > 1 ? Double.parseDouble(entry[1]) : 0;
+            }
+            scenario.mix(weights[0], weights[1], weights[2], weights[3], Integer.parseInt(options.getOrDefault("pages", "3")))
+                    .flowPacing(pacing);
+        }
+        return scenario;
+    }
+
+    public static Path planDirectory() {
+        return PLAN_DIR;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (EmbeddedJMeter.relaunchIfNeeded(N11SearchScenario.class, args)) {
+            return;
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        EmbeddedJMeter.initialize();
+        N11SearchScenario scenario = fromOptions(options);
+
+        if (options.containsKey("export")) {
+            EmbeddedJMeter.export(scenario.build(), Paths.get(options.get("export")));
+        }
+        if (Boolean.parseBoolean(options.getOrDefault("run", String.valueOf(!options.containsKey("export"))))) {
+            scenario.loadProperties().forEach(EmbeddedJMeter::setProperty);
+            EmbeddedJMeter.run(scenario.build(), PLAN_DIR,
+                    Paths.get(options.getOrDefault("results", "target/jmeter/results/N11SearchScenario.csv")));
+        }
+    }
+}
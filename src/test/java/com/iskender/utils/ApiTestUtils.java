@@ -3,6 +3,8 @@ package com.iskender.utils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Utility class for API testing operations
  * Contains reusable helper methods for API test automation
@@ -10,13 +12,15 @@ import org.apache.logging.log4j.Logger;
 public class ApiTestUtils {
     
     private static final Logger logger = LogManager.getLogger(ApiTestUtils.class);
+    private static final AtomicInteger idSequence = new AtomicInteger();
     
     /**
      * Generates a unique pet ID based on current timestamp
+     * A per-JVM sequence keeps IDs unique for pets created in the same millisecond (concurrent requests)
      * @return unique integer ID within integer range
      */
     public static int generateUniquePetId() {
-        return (int)(System.currentTimeMillis() % Integer.MAX_VALUE);
+        return (int)((System.currentTimeMillis() + idSequence.incrementAndGet()) % Integer.MAX_VALUE);
     }
     
     /**
@@ -53,6 +57,7 @@ public class ApiTestUtils {
      */
     public static void logStep(String step) {
         logger.info("STEP: " + step);
+        FlightRecording.step(step);
     }
     
     /**
@@ -0,0 +1,190 @@
+package com.iskender.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds browser options for the configured launch profile (browser.profile).
+ * "default" keeps a headed, maximized browser for local runs; "ci-fast" is a headless,
+ * low-footprint profile for dense CI hosts. Also keeps browser startup times per profile.
+ */
+public class BrowserOptionsFactory {
+
+    private static final Logger logger = LogManager.getLogger(BrowserOptionsFactory.class);
+
+    public static final String DEFAULT_PROFILE = "default";
+    public static final String CI_FAST_PROFILE = "ci-fast";
+
+    private static final String WINDOW_SIZE = "1920,1080";
+
+    private static final List<String> COMMON_CHROMIUM_ARGS = List.of(
+            "--disable-blink-features=AutomationControlled",
+            "--disable-extensions",
+            "--disable-notifications",
+            "--no-first-run",
+            "--no-default-browser-check"
+    );
+
+    private static final List<String> CI_FAST_CHROMIUM_ARGS = List.of(
+            "--headless=new",
+            "--window-size=" + WINDOW_SIZE,
+            "--disable-gpu",
+            "--disable-dev-shm-usage",
+            "--disable-background-networking",
+            "--disable-background-timer-throttling",
+            "--disable-backgrounding-occluded-windows",
+            "--disable-renderer-backgrounding",
+            "--renderer-process-limit=2",
+            "--disable-component-update",
+            "--disable-sync",
+            "--disable-features=Translate,MediaRouter,OptimizationHints",
+            "--mute-audio"
+    );
+
+    private static final Map<String, StartupStats> startupTimes = new ConcurrentHashMap<>();
+
+    private BrowserOptionsFactory() {}
+
+    public static String getProfile() {
+        return ConfigurationReader.getProperty("browser.profile", DEFAULT_PROFILE).trim().toLowerCase();
+    }
+
+    public static boolean isCiFast() {
+        return CI_FAST_PROFILE.equals(getProfile());
+    }
+
+    /**
+     * Fixed viewport profiles size the window through launch flags, so the window must not be maximized
+     */
+    public static boolean shouldMaximize() {
+        return !isCiFast() && ConfigurationReader.getBooleanProperty("browser.maximize", true);
+    }
+
+    /**
+     * @param forceHeadless true for the headless-chrome browser type regardless of profile
+     */
+    public static ChromeOptions chromeOptions(boolean forceHeadless) {
+        ChromeOptions options = new ChromeOptions();
+        applyChromiumProfile(options, forceHeadless);
+        if (!isCiFast() && !forceHeadless) {
+            options.addArguments("--disable-popup-blocking");
+            options.addArguments("--user-data-dir=/tmp/test-profile");
+        }
+        // Only disable notifications, keep images and popups normal
+        options.setExperimentalOption("prefs", Map.of(
+                "profile.default_content_setting_values.notifications", 2
+        ));
+        return options;
+    }
+
+    /**
+     * Chrome options of the profile that also accept DevTools connections from any origin
+     */
+    public static ChromeOptions remoteAllowOriginsChromeOptions() {
+        ChromeOptions options = chromeOptions(false);
+        options.addArguments("--remote-allow-origins=*");
+        return options;
+    }
+
+    public static EdgeOptions edgeOptions() {
+        EdgeOptions options = new EdgeOptions();
+        if (isCiFast()) {
+            applyChromiumProfile(options, false);
+        } else {
+            options.setPageLoadStrategy(getPageLoadStrategy());
+        }
+        return options;
+    }
+
+    public static FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.addPreference("dom.webdriver.enabled", false);
+        options.addPreference("dom.webnotifications.enabled", false);
+        options.addPreference("dom.push.enabled", false);
+        options.addPreference("dom.disable_open_during_load", false);
+        options.addPreference("privacy.trackingprotection.enabled", true);
+        if (isCiFast()) {
+            String[] size = WINDOW_SIZE.split(",");
+            options.addArguments("-headless", "--width=" + size[0], "--height=" + size[1]);
+            options.addPreference("media.autoplay.default", 5);
+            options.addPreference("browser.cache.disk.enable", false);
+        } else if (ConfigurationReader.isBrowserHeadless()) {
+            options.addArguments("-headless");
+        }
+        options.setPageLoadStrategy(getPageLoadStrategy());
+        return options;
+    }
+
+    private static void applyChromiumProfile(ChromiumOptions<?> options, boolean forceHeadless) {
+        options.addArguments(COMMON_CHROMIUM_ARGS);
+        if (isCiFast()) {
+            options.addArguments(CI_FAST_CHROMIUM_ARGS);
+        } else if (forceHeadless || ConfigurationReader.isBrowserHeadless()) {
+            options.addArguments("--headless=new");
+        }
+        options.setPageLoadStrategy(getPageLoadStrategy());
+    }
+
+    /**
+     * Page objects wait for their own readiness condition, so navigation only needs to block until
+     * the DOM is parsed (eager) or not at all (none). Set browser.page.load.strategy=normal to restore
+     * waiting for the full load event.
+     */
+    public static PageLoadStrategy getPageLoadStrategy() {
+        String strategy = ConfigurationReader.getProperty("browser.page.load.strategy", "eager").trim().toLowerCase();
+        switch (strategy) {
+            case "normal":
+                return PageLoadStrategy.NORMAL;
+            case "none":
+                return PageLoadStrategy.NONE;
+            case "eager":
+                return PageLoadStrategy.EAGER;
+            default:
+                throw new IllegalArgumentException("Page load strategy not supported: " + strategy);
+        }
+    }
+
+    public static void recordStartup(String browserType, long millis) {
+        String key = getProfile() + "/" + browserType;
+        startupTimes.computeIfAbsent(key, k -> new StartupStats()).record(millis);
+        logger.info("Browser startup time [" + key + "]: " + millis + " ms");
+    }
+
+    /**
+     * @return startup statistics keyed by "profile/browser"
+     */
+    public static Map<String, String> getStartupSummary() {
+        Map<String, String> summary = new TreeMap<>();
+        startupTimes.forEach((key, stats) -> summary.put(key, stats.toString()));
+        return summary;
+    }
+
+    private static class StartupStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long millis) {
+            count.incrementAndGet();
+            total.addAndGet(millis);
+            max.accumulateAndGet(millis, Math::max);
+        }
+
+        @Override
+        public String toString() {
+            long launches = count.get();
+            return launches + " launches, avg " + (launches > 0 ? total.get() / launches : 0) + " ms, max " + max.get() + " ms";
+        }
+    }
+}
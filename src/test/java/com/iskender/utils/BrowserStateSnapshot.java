@@ -0,0 +1,240 @@
+package com.iskender.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Captures browser state (cookies and localStorage, e.g. cookie consent already given) once and
+ * injects it into new sessions before their first navigation, so tests don't repeat the consent flow.
+ * A snapshot is only used for the origin of app.url and for browser.state.snapshot.ttl.hours after
+ * it was captured; otherwise the session goes through the consent flow and captures a new one.
+ */
+public class BrowserStateSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(BrowserStateSnapshot.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<String, Map<String, Object>> snapshotCache = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Boolean> sessionPrepared = ThreadLocal.withInitial(() -> false);
+
+    private BrowserStateSnapshot() {}
+
+    public static boolean isEnabled() {
+        return ConfigurationReader.getBooleanProperty("browser.state.snapshot.enabled", true);
+    }
+
+    private static String getSnapshotName() {
+        return ConfigurationReader.getProperty("browser.state.snapshot.name", "consent");
+    }
+
+    private static long getTtlMillis() {
+        return ConfigurationReader.getIntProperty("browser.state.snapshot.ttl.hours", 24) * 3_600_000L;
+    }
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+    }
+
+    private static File getSnapshotFile(String name) {
+        String dir = ConfigurationReader.getProperty("browser.state.snapshot.dir", "test-output/state");
+        return new File(System.getProperty("user.dir") + "/" + dir + "/" + name + ".json");
+    }
+
+    /**
+     * Injects the stored snapshot into a new session. Chromium browsers get cookies and a localStorage
+     * init script through DevTools without any navigation; other browsers visit the origin once.
+     * @param driver freshly created driver (must not be wrapped by a decorator)
+     */
+    @SuppressWarnings("unchecked")
+    public static void restore(WebDriver driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<String, Object> snapshot = load(getSnapshotName());
+        if (snapshot == null) {
+            return;
+        }
+        String origin = (String) snapshot.get("origin");
+        // Snapshots from older or hand-edited files may lack either part
+        List<Map<String, Object>> cookies = liveCookies((List<Map<String, Object>>) snapshot.get("cookies"));
+        Map<String, String> localStorage = snapshot.get("localStorage") != null
+                ? (Map<String, String>) snapshot.get("localStorage") : Map.of();
+        Number capturedAt = (Number) snapshot.get("capturedAt");
+        if (origin == null) {
+            logger.warn("Browser state snapshot has no origin, consent will be captured again");
+            return;
+        }
+        String appOrigin = originOf(ConfigurationReader.getAppUrl());
+        if (!origin.equals(appOrigin)) {
+            logger.info("Browser state snapshot is for " + origin + ", not " + appOrigin + ", consent will be captured again");
+            return;
+        }
+        if (capturedAt == null || System.currentTimeMillis() - capturedAt.longValue() > getTtlMillis()
+                || (cookies.isEmpty() && localStorage.isEmpty())) {
+            logger.info("Browser state snapshot expired, consent will be captured again");
+            return;
+        }
+
+        try {
+            if (driver instanceof ChromiumDriver) {
+                restoreWithDevTools((ChromiumDriver) driver, origin, cookies, localStorage);
+            } else {
+                restoreByVisitingOrigin(driver, origin, cookies, localStorage);
+            }
+            sessionPrepared.set(true);
+            logger.info("Browser state snapshot restored: " + cookies.size() + " cookies, "
+                    + localStorage.size() + " localStorage items for " + origin);
+        } catch (Exception e) {
+            logger.warn("Failed to restore browser state snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Makes sure the session has gone through the consent flow once. Called after every navigation,
+     * it is a no-op once the session was prepared by a restored snapshot or an earlier call.
+     */
+    public static void ensureSessionState() {
+        if (sessionPrepared.get()) {
+            return;
+        }
+        sessionPrepared.set(true);
+        if (BrowserUtils.acceptCookieConsent() && isEnabled()) {
+            capture(getSnapshotName());
+        }
+    }
+
+    public static void resetSession() {
+        sessionPrepared.remove();
+    }
+
+    /**
+     * Stores cookies and localStorage of the current document's origin
+     * @param name snapshot name, used as file name
+     */
+    @SuppressWarnings("unchecked")
+    public static void capture(String name) {
+        try {
+            WebDriver driver = Driver.getDriver();
+            String origin = originOf(driver.getCurrentUrl());
+
+            List<Map<String, Object>> cookies = new ArrayList<>();
+            for (Cookie cookie : driver.manage().getCookies()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", cookie.getName());
+                entry.put("value", cookie.getValue());
+                entry.put("domain", cookie.getDomain());
+                entry.put("path", cookie.getPath());
+                entry.put("secure", cookie.isSecure());
+                entry.put("httpOnly", cookie.isHttpOnly());
+                if (cookie.getExpiry() != null) {
+                    entry.put("expires", cookie.getExpiry().getTime() / 1000);
+                }
+                if (cookie.getSameSite() != null) {
+                    entry.put("sameSite", cookie.getSameSite());
+                }
+                cookies.add(entry);
+            }
+            Map<String, String> localStorage = (Map<String, String>) ((JavascriptExecutor) driver).executeScript(
+                    "var items = {}; for (var i = 0; i < localStorage.length; i++) {"
+                    + " var key = localStorage.key(i); items[key] = localStorage.getItem(key); } return items;");
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("origin", origin);
+            snapshot.put("capturedAt", System.currentTimeMillis());
+            snapshot.put("cookies", cookies);
+            snapshot.put("localStorage", localStorage != null ? localStorage : Map.of());
+
+            File target = getSnapshotFile(name);
+            target.getParentFile().mkdirs();
+            mapper.writeValue(target, snapshot);
+            snapshotCache.put(name, snapshot);
+            logger.info("Browser state snapshot '" + name + "' saved to: " + target.getPath());
+        } catch (Exception e) {
+            logger.warn("Failed to capture browser state snapshot: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> load(String name) {
+        return snapshotCache.computeIfAbsent(name, key -> {
+            File file = getSnapshotFile(key);
+            if (!file.exists()) {
+                return null;
+            }
+            try {
+                return mapper.readValue(file, new TypeReference<Map<String, Object>>() {});
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable browser state snapshot " + file.getPath() + ": " + e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private static List<Map<String, Object>> liveCookies(List<Map<String, Object>> cookies) {
+        long now = System.currentTimeMillis() / 1000;
+        List<Map<String, Object>> live = new ArrayList<>();
+        if (cookies == null) {
+            return live;
+        }
+        for (Map<String, Object> cookie : cookies) {
+            Object expires = cookie.get("expires");
+            if (expires == null || ((Number) expires).longValue() > now) {
+                live.add(cookie);
+            }
+        }
+        return live;
+    }
+
+    private static void restoreWithDevTools(ChromiumDriver driver, String origin,
+                                            List<Map<String, Object>> cookies, Map<String, String> localStorage) throws IOException {
+        if (!cookies.isEmpty()) {
+            driver.executeCdpCommand("Network.setCookies", Map.of("cookies", cookies));
+        }
+        if (!localStorage.isEmpty()) {
+            String script = "(function() { if (location.origin !== " + mapper.writeValueAsString(origin) + ") { return; }"
+                    + " var items = " + mapper.writeValueAsString(localStorage) + ";"
+                    + " for (var key in items) { if (localStorage.getItem(key) === null) { localStorage.setItem(key, items[key]); } } })();";
+            driver.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", script));
+        }
+    }
+
+    private static void restoreByVisitingOrigin(WebDriver driver, String origin,
+                                                List<Map<String, Object>> cookies, Map<String, String> localStorage) {
+        // WebDriver only accepts cookies for the current document's domain
+        driver.get(origin + "/robots.txt");
+        for (Map<String, Object> entry : cookies) {
+            Cookie.Builder cookie = new Cookie.Builder((String) entry.get("name"), (String) entry.get("value"))
+                    .domain((String) entry.get("domain"))
+                    .path((String) entry.get("path"))
+                    .isSecure(Boolean.TRUE.equals(entry.get("secure")))
+                    .isHttpOnly(Boolean.TRUE.equals(entry.get("httpOnly")));
+            if (entry.get("expires") != null) {
+                cookie.expiresOn(new Date(((Number) entry.get("expires")).longValue() * 1000));
+            }
+            if (entry.get("sameSite") != null) {
+                cookie.sameSite((String) entry.get("sameSite"));
+            }
+            driver.manage().addCookie(cookie.build());
+        }
+        for (Map.Entry<String, String> item : localStorage.entrySet()) {
+            ((JavascriptExecutor) driver).executeScript("localStorage.setItem(arguments[0], arguments[1]);",
+                    item.getKey(), item.getValue());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
@@ -12,7 +13,6 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class BrowserUtils {
 
@@ -25,6 +25,43 @@ public class BrowserUtils {
         logger.info("Page loaded successfully");
     }
 
+    public static <T> T waitForCondition(ExpectedCondition<T> condition, long timeOutInSeconds) {
+        logger.info("Waiting for condition: " + condition);
+        WebDriverWait wait = new WebDriverWait(Driver.getDriver(), Duration.ofSeconds(timeOutInSeconds));
+        return wait.until(condition);
+    }
+
+    // DOM parsed and deferred scripts run - the point where an eager page load strategy returns
+    public static ExpectedCondition<Boolean> domContentLoaded() {
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver webDriver) {
+                return !"loading".equals(((JavascriptExecutor) webDriver).executeScript("return document.readyState"));
+            }
+
+            @Override
+            public String toString() {
+                return "DOM content loaded";
+            }
+        };
+    }
+
+    // No jQuery XHR in flight; pages without jQuery are considered idle
+    public static ExpectedCondition<Boolean> ajaxIdle() {
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver webDriver) {
+                return (Boolean) ((JavascriptExecutor) webDriver).executeScript(
+                        "return typeof window.jQuery === 'undefined' || window.jQuery.active === 0");
+            }
+
+            @Override
+            public String toString() {
+                return "AJAX requests idle";
+            }
+        };
+    }
+
     public static WebElement waitForVisibility(WebElement element, int timeToWaitInSec) {
         logger.info("Waiting for element to be visible");
         WebDriverWait wait = new WebDriverWait(Driver.getDriver(), Duration.ofSeconds(timeToWaitInSec));
@@ -104,6 +141,7 @@ public class BrowserUtils {
     public static void navigateTo(String url) {
         logger.info("Navigating to: " + url);
         Driver.getDriver().get(url);
+        BrowserStateSnapshot.ensureSessionState();
     }
 
     public static boolean isElementDisplayed(WebElement element) {
@@ -141,18 +179,30 @@ public class BrowserUtils {
         }
     }
 
-    public static void dismissCookiePopupIfPresent() {
+    /**
+     * Accepts the cookie consent banner once per session. The banner is injected asynchronously,
+     * so it is polled for a short time with the implicit wait disabled.
+     * @return true if the banner was found and accepted
+     */
+    public static boolean acceptCookieConsent() {
+        WebDriver driver = Driver.getDriver();
+        By acceptButton = By.xpath("//a[contains(text(),'Accept')]");
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
         try {
-            List<WebElement> cookieButtons = Driver.getDriver().findElements(
-                    By.xpath("//a[contains(text(),'Accept')]")
-            );
-
-            if (!cookieButtons.isEmpty()) {
-                cookieButtons.get(0).click();
-                waitFor(1);
-            }
+            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigurationReader.getIntProperty("consent.wait.seconds", 3)));
+            WebElement button = wait.until(ExpectedConditions.elementToBeClickable(acceptButton));
+            button.click();
+            wait.until(ExpectedConditions.invisibilityOf(button));
+            logger.info("Cookie consent accepted");
+            return true;
+        } catch (TimeoutException e) {
+            logger.info("No cookie consent banner shown");
+            return false;
         } catch (Exception e) {
-            // Ignore if no cookie popup
+            logger.warn("Failed to accept cookie consent: " + e.getMessage());
+            return false;
+        } finally {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigurationReader.getTimeout()));
         }
     }
-}
\ No newline at end of file
+}
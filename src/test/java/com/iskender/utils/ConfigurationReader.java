@@ -2,6 +2,9 @@ package com.iskender.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 
 public class ConfigurationReader {
@@ -50,6 +53,19 @@ public class ConfigurationReader {
         return defaultValue;
     }
 
+    public static List<String> getListProperty(String key) {
+        List<String> values = new ArrayList<>();
+        String value = getProperty(key);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
     // Specific getters
     public static String getAppUrl() {
         return getProperty("app.url", "https://useinsider.com/");
@@ -66,4 +82,28 @@ public class ConfigurationReader {
     public static int getTimeout() {
         return getIntProperty("timeout", 10);
     }
-}
\ No newline at end of file
+
+    public static boolean isNetworkBlockingEnabled() {
+        return getBooleanProperty("network.block.enabled", false);
+    }
+
+    public static List<String> getNetworkBlockPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : getListProperty("network.block.patterns")) {
+            patterns.add(pattern.toLowerCase(Locale.ROOT));
+        }
+        return patterns;
+    }
+
+    public static boolean isNetworkCacheEnabled() {
+        return getBooleanProperty("network.cache.enabled", false);
+    }
+
+    public static String getNetworkCacheDir() {
+        return getProperty("network.cache.dir", "test-output/network-cache");
+    }
+
+    public static int getNetworkCacheTtlHours() {
+        return getIntProperty("network.cache.ttl.hours", 24);
+    }
+}
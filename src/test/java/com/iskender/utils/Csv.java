@@ -0,0 +1,49 @@
+package com.iskender.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal CSV handling shared by the data providers, load components and tools: double-quoted values
+ * with "" as escaped quote, no line breaks inside values. Free of JMeter classes so command line tools
+ * can use it.
+ */
+public final class Csv {
+
+    private Csv() {}
+
+    public static String[] split(String line, char separator) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values.toArray(new String[0]);
+    }
+
+    public static String value(String value) {
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,255 @@
+package com.iskender.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazy TestNG data providers backed by CSV or JSON Lines files. Rows are read one at a time from a
+ * memory-mapped file and converted to the test method's parameter types, so large boundary and fuzz
+ * datasets never have to be held in heap. Iterators are safe for parallel data providers, and rows
+ * can be sharded across runs with data.shard.index / data.shard.count.
+ *
+ * CSV files have a header row; blank lines and lines starting with '#' are skipped in both formats.
+ */
+public class DataFileProvider {
+
+    private static final Logger logger = LogManager.getLogger(DataFileProvider.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Files are mapped once and shared; every iterator reads through its own duplicate view
+    private static final Map<Path, MappedByteBuffer> mappedFiles = new ConcurrentHashMap<>();
+
+    private DataFileProvider() {}
+
+    /**
+     * @param dataFile file path or classpath resource, e.g. "data/invalid_ids.csv"; .jsonl files are read as JSON Lines
+     * @param method test method receiving the rows, used to convert values to its parameter types
+     */
+    public static Iterator<Object[]> rows(String dataFile, Method method) {
+        return open(dataFile, method.getName(), method.getParameterTypes());
+    }
+
+    /**
+     * Rows of a data file converted to the given types, for tests that use a dataset as a whole
+     * @param parameterTypes type of each column, e.g. {@code String.class}
+     */
+    public static Iterator<Object[]> rows(String dataFile, Class<?>... parameterTypes) {
+        return open(dataFile, "a batch", parameterTypes);
+    }
+
+    private static Iterator<Object[]> open(String dataFile, String consumer, Class<?>[] parameterTypes) {
+        int shardCount = Math.max(1, ConfigurationReader.getIntProperty("data.shard.count", 1));
+        int shardIndex = ConfigurationReader.getIntProperty("data.shard.index", 0);
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("data.shard.index must be between 0 and " + (shardCount - 1) + ": " + shardIndex);
+        }
+        boolean jsonLines = dataFile.endsWith(".jsonl");
+        logger.info("Streaming test data from " + dataFile + " for " + consumer
+                + (shardCount > 1 ? " (shard " + shardIndex + " of " + shardCount + ")" : ""));
+        return new RowIterator(dataFile, openLines(dataFile), jsonLines, parameterTypes, shardIndex, shardCount);
+    }
+
+    private static LineSource openLines(String dataFile) {
+        Path path = resolve(dataFile);
+        if (path != null) {
+            ByteBuffer view = mappedFiles.computeIfAbsent(path, DataFileProvider::map).duplicate();
+            return () -> nextLine(view);
+        }
+        // Resources inside a jar cannot be mapped, stream them instead
+        InputStream in = DataFileProvider.class.getClassLoader().getResourceAsStream(dataFile);
+        if (in == null) {
+            throw new IllegalArgumentException("Data file not found: " + dataFile);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return () -> {
+            String line = reader.readLine();
+            if (line == null) {
+                reader.close();
+            }
+            return line;
+        };
+    }
+
+    private static Path resolve(String dataFile) {
+        Path path = Paths.get(dataFile);
+        if (Files.isRegularFile(path)) {
+            return path.toAbsolutePath().normalize();
+        }
+        URL resource = DataFileProvider.class.getClassLoader().getResource(dataFile);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                return Paths.get(resource.toURI());
+            } catch (URISyntaxException e) {
+                logger.debug("Cannot map data file " + resource + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Data files larger than 2 GB are not supported: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map data file " + path, e);
+        }
+    }
+
+    private static String nextLine(ByteBuffer view) {
+        if (!view.hasRemaining()) {
+            return null;
+        }
+        int start = view.position();
+        int end = start;
+        while (end < view.limit() && view.get(end) != '\n') {
+            end++;
+        }
+        view.position(Math.min(end + 1, view.limit()));
+        if (end > start && view.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        view.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        } else if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(value.trim());
+        } else if (type == long.class || type == Long.class) {
+            return Long.parseLong(value.trim());
+        } else if (type == double.class || type == Double.class) {
+            return Double.parseDouble(value.trim());
+        } else if (type == boolean.class || type == Boolean.class) {
+            return Boolean.parseBoolean(value.trim());
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, value.trim());
+        }
+        throw new IllegalArgumentException("Unsupported data provider parameter type: " + type.getName());
+    }
+
+    @FunctionalInterface
+    private interface LineSource {
+        String next() throws IOException;
+    }
+
+    private static class RowIterator implements Iterator<Object[]> {
+        private final String dataFile;
+        private final LineSource lines;
+        private final boolean jsonLines;
+        private final Class<?>[] parameterTypes;
+        private final int shardIndex;
+        private final int shardCount;
+        private boolean headerSkipped;
+        private long rowNumber = -1;
+        private long lineNumber;
+        private Object[] next;
+
+        RowIterator(String dataFile, LineSource lines, boolean jsonLines, Class<?>[] parameterTypes,
+                    int shardIndex, int shardCount) {
+            this.dataFile = dataFile;
+            this.lines = lines;
+            this.jsonLines = jsonLines;
+            this.parameterTypes = parameterTypes;
+            this.shardIndex = shardIndex;
+            this.shardCount = shardCount;
+            this.headerSkipped = jsonLines;
+        }
+
+        // Parallel data providers may be drained from several threads
+        @Override
+        public synchronized boolean hasNext() {
+            if (next == null) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public synchronized Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] row = next;
+            next = null;
+            return row;
+        }
+
+        private Object[] readNext() {
+            try {
+                String line;
+                while ((line = lines.next()) != null) {
+                    lineNumber++;
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    if (!headerSkipped) {
+                        headerSkipped = true;
+                        continue;
+                    }
+                    if (++rowNumber % shardCount == shardIndex) {
+                        return toRow(line);
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + dataFile, e);
+            }
+        }
+
+        private Object[] toRow(String line) throws IOException {
+            List<String> values = new ArrayList<>();
+            if (jsonLines) {
+                for (JsonNode field : mapper.readTree(line)) {
+                    values.add(field.isValueNode() ? field.asText() : field.toString());
+                }
+            } else {
+                values = Arrays.asList(Csv.split(line, ','));
+            }
+            if (values.size() != parameterTypes.length) {
+                throw new IllegalArgumentException(dataFile + " line " + lineNumber + ": expected "
+                        + parameterTypes.length + " values but found " + values.size());
+            }
+            Object[] row = new Object[parameterTypes.length];
+            for (int i = 0; i < row.length; i++) {
+                try {
+                    row[i] = convert(values.get(i), parameterTypes[i]);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(dataFile + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+            return row;
+        }
+    }
+}
@@ -4,12 +4,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Driver {
     
@@ -41,70 +43,51 @@ public class Driver {
                 browserType = "chrome";
             }
 
-            logger.info("Initializing browser: '" + browserType + "'");
+            logger.info("Initializing browser: '" + browserType + "' with profile: " + BrowserOptionsFactory.getProfile());
 
+            long startupBegin = System.currentTimeMillis();
             switch (browserType.toLowerCase()) {
                 case "chrome":
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
-                    chromeOptions.addArguments("--disable-extensions");
-                    chromeOptions.addArguments("--disable-notifications");
-                    chromeOptions.addArguments("--no-first-run");
-                    chromeOptions.addArguments("--no-default-browser-check");
-                    chromeOptions.addArguments("--disable-popup-blocking");
-                    chromeOptions.addArguments("--user-data-dir=/tmp/test-profile");
-                    // Only disable notifications, keep images and popups normal
-                    chromeOptions.setExperimentalOption("prefs", java.util.Map.of(
-                        "profile.default_content_setting_values.notifications", 2
-                    ));
-                    
-                    if (ConfigurationReader.isBrowserHeadless()) {
-                        chromeOptions.addArguments("--headless=new");
-                    }
-                    driverPool.set(new ChromeDriver(chromeOptions));
+                    driverPool.set(new ChromeDriver(BrowserOptionsFactory.chromeOptions(false)));
                     break;
                 case "firefox":
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    firefoxOptions.addPreference("dom.webdriver.enabled", false);
-                    firefoxOptions.addPreference("dom.webnotifications.enabled", false);
-                    firefoxOptions.addPreference("dom.push.enabled", false);
-                    firefoxOptions.addPreference("dom.disable_open_during_load", false);
-                    firefoxOptions.addPreference("privacy.trackingprotection.enabled", true);
-                    driverPool.set(new FirefoxDriver(firefoxOptions));
+                    driverPool.set(new FirefoxDriver(BrowserOptionsFactory.firefoxOptions()));
                     break;
                 case "edge":
-                    driverPool.set(new EdgeDriver());
+                    driverPool.set(new EdgeDriver(BrowserOptionsFactory.edgeOptions()));
                     break;
                 case "headless-chrome":
-                    ChromeOptions headlessOptions = new ChromeOptions();
-                    headlessOptions.addArguments("--headless=new");
-                    headlessOptions.addArguments("--disable-blink-features=AutomationControlled");
-                    headlessOptions.addArguments("--disable-extensions");
-                    headlessOptions.addArguments("--disable-notifications");
-                    headlessOptions.addArguments("--no-first-run");
-                    headlessOptions.addArguments("--no-default-browser-check");
-                    
-                    headlessOptions.setExperimentalOption("prefs", java.util.Map.of(
-                        "profile.default_content_setting_values.notifications", 2
-                    ));
-                    driverPool.set(new ChromeDriver(headlessOptions));
+                    driverPool.set(new ChromeDriver(BrowserOptionsFactory.chromeOptions(true)));
                     break;
                 case "remote-allow-origins":
-                    ChromeOptions remoteOptions = new ChromeOptions();
-                    remoteOptions.addArguments("--remote-allow-origins=*");
-                    driverPool.set(new ChromeDriver(remoteOptions));
+                    driverPool.set(new ChromeDriver(BrowserOptionsFactory.remoteAllowOriginsChromeOptions()));
                     break;
                 default:
                     logger.error("Browser not supported: " + browserType);
                     throw new IllegalArgumentException("Browser not supported: " + browserType);
             }
-            
+            BrowserOptionsFactory.recordStartup(browserType.toLowerCase(), System.currentTimeMillis() - startupBegin);
+
             // Configure driver settings
-            if (ConfigurationReader.getBooleanProperty("browser.maximize", true)) {
+            if (BrowserOptionsFactory.shouldMaximize()) {
                 driverPool.get().manage().window().maximize();
             }
             int timeout = ConfigurationReader.getTimeout();
             driverPool.get().manage().timeouts().implicitlyWait(Duration.ofSeconds(timeout));
+            BrowserStateSnapshot.restore(driverPool.get());
+            NetworkOptimizer.install(driverPool.get());
+            // Decorated last, the DevTools features above need the unwrapped driver
+            List<WebDriverListener> listeners = new ArrayList<>();
+            if (WebDriverCommandTracer.isEnabled()) {
+                listeners.add(new WebDriverCommandTracer());
+            }
+            if (FlightRecording.isRecording()) {
+                listeners.add(new JfrWebDriverListener());
+            }
+            if (!listeners.isEmpty()) {
+                driverPool.set(new EventFiringDecorator<>(WebDriver.class, listeners.toArray(new WebDriverListener[0]))
+                        .decorate(driverPool.get()));
+            }
             logger.info("Browser initialized successfully: " + browserType);
         }
 
@@ -114,8 +97,10 @@ public class Driver {
     public static void closeDriver() {
         if (driverPool.get() != null) {
             logger.info("Closing browser");
+            NetworkOptimizer.uninstall();
             driverPool.get().quit();
             driverPool.remove();
+            BrowserStateSnapshot.resetSession();
             logger.info("Browser closed successfully");
         }
     }
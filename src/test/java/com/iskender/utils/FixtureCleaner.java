@@ -0,0 +1,165 @@
+package com.iskender.utils;
+
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Registry of resources created by API tests. Registered resources are deleted in the background
+ * once their test class has finished, with bounded concurrency and retries, so cleanup neither
+ * slows the tests down nor leaves test data behind on the shared environment.
+ */
+public class FixtureCleaner {
+
+    private static final Logger logger = LogManager.getLogger(FixtureCleaner.class);
+
+    // owner (test class) -> "baseUri/resourcePath" of every resource still to delete -> test that created it
+    private static final Map<String, Map<String, String>> registry = new ConcurrentHashMap<>();
+    private static final List<CompletableFuture<Void>> pendingCleanups = new ArrayList<>();
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService cleanupExecutor = Executors.newFixedThreadPool(
+            ConfigurationReader.getIntProperty("api.cleanup.concurrency", 4), runnable -> {
+                Thread thread = new Thread(runnable, "fixture-cleanup-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final AtomicLong deleted = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+
+    private FixtureCleaner() {}
+
+    public static boolean isEnabled() {
+        return ConfigurationReader.getBooleanProperty("api.cleanup.enabled", true);
+    }
+
+    /**
+     * @param owner test class that created the resource
+     * @param resourceUrl absolute URL that deletes the resource, e.g. https://host/v2/pet/42
+     */
+    public static void register(String owner, String resourceUrl) {
+        registry.computeIfAbsent(owner, key -> new ConcurrentHashMap<>()).put(resourceUrl, FlightRecording.currentTestName());
+        logger.debug("Fixture registered for cleanup by " + owner + ": " + resourceUrl);
+    }
+
+    /**
+     * Removes a resource the test deleted itself
+     */
+    public static void unregister(String owner, String resourceUrl) {
+        Map<String, String> resources = registry.get(owner);
+        if (resources != null) {
+            resources.remove(resourceUrl);
+        }
+    }
+
+    /**
+     * Submits deletion of every resource registered by the owner and returns immediately
+     */
+    public static void cleanupAsync(String owner) {
+        Map<String, String> resources = registry.remove(owner);
+        if (resources == null || resources.isEmpty()) {
+            return;
+        }
+        if (!isEnabled()) {
+            logger.info("Fixture cleanup disabled, leaving " + resources.size() + " resources of " + owner);
+            return;
+        }
+        int batchSize = Math.max(1, ConfigurationReader.getIntProperty("api.cleanup.batch.size", 20));
+        List<Map.Entry<String, String>> urls = new ArrayList<>(resources.entrySet());
+        logger.info("Scheduling cleanup of " + urls.size() + " resources created by " + owner);
+
+        // Batches go out one after another; the deletes inside a batch run on the bounded pool
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int start = 0; start < urls.size(); start += batchSize) {
+            List<Map.Entry<String, String>> batch = urls.subList(start, Math.min(start + batchSize, urls.size()));
+            chain = chain.thenCompose(ignored -> deleteBatch(batch));
+        }
+        synchronized (pendingCleanups) {
+            pendingCleanups.add(chain);
+        }
+    }
+
+    /**
+     * Waits for all submitted cleanups, resources still registered are cleaned up first
+     * @param timeoutSeconds upper bound for the wait, remaining deletes are abandoned afterwards
+     */
+    public static void awaitCompletion(int timeoutSeconds) {
+        for (String owner : new ArrayList<>(registry.keySet())) {
+            cleanupAsync(owner);
+        }
+        CompletableFuture<Void> all;
+        synchronized (pendingCleanups) {
+            if (pendingCleanups.isEmpty()) {
+                return;
+            }
+            all = CompletableFuture.allOf(pendingCleanups.toArray(new CompletableFuture[0]));
+            pendingCleanups.clear();
+        }
+        try {
+            all.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Fixture cleanup did not finish within " + timeoutSeconds + " s");
+        } catch (Exception e) {
+            logger.warn("Fixture cleanup failed: " + e.getMessage());
+        }
+        logger.info("Fixture cleanup: " + getSummary());
+    }
+
+    public static String getSummary() {
+        return deleted.get() + " deleted, " + failed.get() + " failed";
+    }
+
+    private static CompletableFuture<Void> deleteBatch(List<Map.Entry<String, String>> batch) {
+        List<CompletableFuture<Void>> deletes = new ArrayList<>();
+        for (Map.Entry<String, String> resource : batch) {
+            // Recorded against the test that created the resource, the cleanup threads run none
+            Runnable delete = FlightRecording.withTestName(resource.getValue(), () -> deleteWithRetry(resource.getKey()));
+            deletes.add(CompletableFuture.runAsync(delete, cleanupExecutor));
+        }
+        return CompletableFuture.allOf(deletes.toArray(new CompletableFuture[0]));
+    }
+
+    private static void deleteWithRetry(String url) {
+        int attempts = 1 + Math.max(0, ConfigurationReader.getIntProperty("api.cleanup.retries", 2));
+        long backoffMillis = ConfigurationReader.getIntProperty("api.cleanup.backoff.ms", 500);
+        String lastError = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                Response response = given().when().delete(url);
+                int status = response.getStatusCode();
+                // 404 means the resource is already gone, which is what cleanup wants
+                if (status == 200 || status == 204 || status == 404) {
+                    deleted.incrementAndGet();
+                    return;
+                }
+                lastError = "status " + status;
+            } catch (Exception e) {
+                lastError = e.getMessage();
+            }
+            if (attempt < attempts) {
+                try {
+                    Thread.sleep(backoffMillis << (attempt - 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        failed.incrementAndGet();
+        logger.warn("Fixture cleanup gave up on " + url + ": " + lastError);
+    }
+}
@@ -0,0 +1,181 @@
+package com.iskender.utils;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in Java Flight Recorder recording of the whole suite (jfr.enabled=true or mvn test -Pjfr).
+ * Records the JVM's own events with the jfr.settings configuration ("profile": CPU samples,
+ * allocations, GC, locks) together with the framework events in {@link JfrEvents}: tests, logStep
+ * steps, WebDriver commands and REST calls, each with its duration. The recording is written to
+ * jfr.dir (test-output/jfr) when the suite ends; open it in JDK Mission Control.
+ */
+public class FlightRecording {
+
+    private static final Logger logger = LogManager.getLogger(FlightRecording.class);
+
+    private static volatile Recording recording;
+    private static Path destination;
+
+    private static final ThreadLocal<JfrEvents.TestEvent> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<JfrEvents.StepEvent> currentStep = new ThreadLocal<>();
+    // Test a pool thread is working for, set by withTestName around the task
+    private static final ThreadLocal<String> delegatedTest = new ThreadLocal<>();
+
+    private FlightRecording() {}
+
+    public static boolean isEnabled() {
+        return ConfigurationReader.getBooleanProperty("jfr.enabled", false);
+    }
+
+    public static boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Starts the suite recording if enabled and not already running
+     */
+    public static synchronized void start() {
+        if (!isEnabled() || recording != null) {
+            return;
+        }
+        String settings = ConfigurationReader.getProperty("jfr.settings", "profile");
+        try {
+            Path dir = Paths.get(ConfigurationReader.getProperty("jfr.dir", "test-output/jfr"));
+            Files.createDirectories(dir);
+            destination = dir.resolve("suite_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".jfr");
+
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName("test-suite");
+            started.enable(JfrEvents.TestEvent.class);
+            started.enable(JfrEvents.StepEvent.class);
+            started.enable(JfrEvents.WebDriverCommandEvent.class).withStackTrace();
+            started.enable(JfrEvents.RestCallEvent.class);
+            started.setToDisk(true);
+            started.setDestination(destination);
+            // Still written if the JVM exits before the suite teardown
+            started.setDumpOnExit(true);
+            started.start();
+            recording = started;
+            logger.info("JFR recording started with '" + settings + "' settings, written to " + destination + " at suite end");
+        } catch (Exception e) {
+            logger.warn("JFR recording could not be started: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recording, which writes it to its destination
+     * @return the recording file, or null if nothing was recorded
+     */
+    public static synchronized Path stop() {
+        if (recording == null) {
+            return null;
+        }
+        try {
+            recording.stop();
+            logger.info("JFR recording written to " + destination.toAbsolutePath());
+            return destination;
+        } catch (Exception e) {
+            logger.warn("JFR recording could not be written: " + e.getMessage());
+            return null;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public static void testStarted(String testClass, String method) {
+        if (recording == null) {
+            return;
+        }
+        JfrEvents.TestEvent event = new JfrEvents.TestEvent();
+        event.testClass = testClass;
+        event.method = method;
+        event.begin();
+        currentTest.set(event);
+    }
+
+    public static void testFinished(String status) {
+        endStep();
+        JfrEvents.TestEvent event = currentTest.get();
+        currentTest.remove();
+        if (event != null) {
+            event.status = status;
+            event.commit();
+        }
+    }
+
+    /**
+     * Ends the running step of this thread's test and starts the next one
+     */
+    public static void step(String step) {
+        endStep();
+        JfrEvents.TestEvent test = currentTest.get();
+        if (test == null) {
+            return;
+        }
+        JfrEvents.StepEvent event = new JfrEvents.StepEvent();
+        event.test = test.method;
+        event.step = step;
+        event.begin();
+        currentStep.set(event);
+    }
+
+    private static void endStep() {
+        JfrEvents.StepEvent event = currentStep.get();
+        currentStep.remove();
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Method name of this thread's running test, or of the test a {@link #withTestName} task works
+     * for; empty outside tests
+     */
+    public static String currentTestName() {
+        JfrEvents.TestEvent test = currentTest.get();
+        if (test != null) {
+            return test.method;
+        }
+        String delegated = delegatedTest.get();
+        return delegated != null ? delegated : "";
+    }
+
+    /**
+     * Wraps a task for another thread so its events carry the given test name, e.g. the
+     * {@link #currentTestName()} of the thread that submits it
+     */
+    public static <T> Supplier<T> withTestName(String testName, Supplier<T> task) {
+        return () -> {
+            String previous = delegatedTest.get();
+            delegatedTest.set(testName);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    delegatedTest.set(previous);
+                } else {
+                    delegatedTest.remove();
+                }
+            }
+        };
+    }
+
+    public static Runnable withTestName(String testName, Runnable task) {
+        Supplier<Void> wrapped = withTestName(testName, () -> {
+            task.run();
+            return null;
+        });
+        return wrapped::get;
+    }
+}
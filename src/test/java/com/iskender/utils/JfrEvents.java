@@ -0,0 +1,85 @@
+package com.iskender.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Java Flight Recorder events of the framework, shown under "Test Automation" in JDK Mission
+ * Control next to the JVM's own CPU, allocation and GC events. Recorded by {@link FlightRecording}.
+ */
+public final class JfrEvents {
+
+    private static final String CATEGORY = "Test Automation";
+
+    private JfrEvents() {}
+
+    @Name("com.iskender.Test")
+    @Label("Test")
+    @Description("One test method, from setup to teardown")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class TestEvent extends Event {
+        @Label("Class")
+        public String testClass;
+
+        @Label("Method")
+        public String method;
+
+        @Label("Status")
+        public String status;
+    }
+
+    @Name("com.iskender.Step")
+    @Label("Test Step")
+    @Description("A logStep step, lasting until the next step or the end of the test")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class StepEvent extends Event {
+        @Label("Test")
+        public String test;
+
+        @Label("Step")
+        public String step;
+    }
+
+    @Name("com.iskender.WebDriverCommand")
+    @Label("WebDriver Command")
+    @Description("A call on the WebDriver or one of its elements, navigation, options or windows")
+    @Category(CATEGORY)
+    public static class WebDriverCommandEvent extends Event {
+        @Label("Test")
+        public String test;
+
+        @Label("Target")
+        public String target;
+
+        @Label("Command")
+        public String command;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    @Name("com.iskender.RestCall")
+    @Label("REST Call")
+    @Description("A REST Assured request, from sending to the parsed response")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static class RestCallEvent extends Event {
+        @Label("Test")
+        public String test;
+
+        @Label("Method")
+        public String method;
+
+        @Label("URI")
+        public String uri;
+
+        @Label("Status Code")
+        public int statusCode;
+    }
+}
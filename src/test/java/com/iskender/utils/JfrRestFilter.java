@@ -0,0 +1,32 @@
+package com.iskender.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records every REST Assured request as a {@link JfrEvents.RestCallEvent} while a
+ * {@link FlightRecording} runs; registered after {@link RateLimitFilter}, so throttling is not included
+ */
+public class JfrRestFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        JfrEvents.RestCallEvent event = new JfrEvents.RestCallEvent();
+        event.test = FlightRecording.currentTestName();
+        event.method = requestSpec.getMethod();
+        event.uri = requestSpec.getURI();
+        event.begin();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            event.statusCode = response != null ? response.getStatusCode() : -1;
+            event.commit();
+        }
+    }
+}
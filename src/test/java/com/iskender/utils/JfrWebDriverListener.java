@@ -0,0 +1,46 @@
+package com.iskender.utils;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Records every call through the decorated driver as a {@link JfrEvents.WebDriverCommandEvent}.
+ * Driver wraps the browser session with it while a {@link FlightRecording} runs.
+ */
+public class JfrWebDriverListener implements WebDriverListener {
+
+    // Calls can nest, e.g. an element returned by findElement is used inside a wait condition
+    private final ThreadLocal<Deque<JfrEvents.WebDriverCommandEvent>> running = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        JfrEvents.WebDriverCommandEvent event = new JfrEvents.WebDriverCommandEvent();
+        event.test = FlightRecording.currentTestName();
+        event.target = method.getDeclaringClass().getSimpleName();
+        event.command = method.getName();
+        event.begin();
+        running.get().push(event);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        end(false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        end(true);
+    }
+
+    private void end(boolean failed) {
+        JfrEvents.WebDriverCommandEvent event = running.get().poll();
+        if (event != null) {
+            event.failed = failed;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.iskender.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Network-level request control for Chromium based sessions via Chrome DevTools Protocol.
+ * Blocks configured URL patterns (trackers, ads, video) and optionally serves static assets
+ * from an on-disk cache shared across sessions. Keeps per-thread counters of what was saved.
+ */
+public class NetworkOptimizer {
+
+    private static final Logger logger = LogManager.getLogger(NetworkOptimizer.class);
+    private static final ThreadLocal<NetworkInterceptor> interceptorPool = new ThreadLocal<>();
+    private static final ThreadLocal<TrafficStats> statsPool = ThreadLocal.withInitial(TrafficStats::new);
+
+    private static final List<String> STATIC_EXTENSIONS = List.of(
+            ".css", ".js", ".woff", ".woff2", ".ttf", ".otf", ".png", ".jpg", ".jpeg", ".gif", ".svg", ".webp", ".ico"
+    );
+
+    // Headers replayed with cached bodies; fonts need the CORS header to be accepted cross-origin
+    private static final List<String> CACHED_HEADERS = List.of("Content-Type", "Access-Control-Allow-Origin");
+
+    private NetworkOptimizer() {}
+
+    /**
+     * Installs the request filter on the given driver if it supports DevTools and the feature is enabled
+     * @param driver freshly created driver (must not be wrapped by a decorator)
+     */
+    public static void install(WebDriver driver) {
+        boolean blockingEnabled = ConfigurationReader.isNetworkBlockingEnabled();
+        boolean cacheEnabled = ConfigurationReader.isNetworkCacheEnabled();
+        if (!blockingEnabled && !cacheEnabled) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            logger.info("Network optimization skipped - browser does not support DevTools: " + driver.getClass().getSimpleName());
+            return;
+        }
+
+        List<String> blockedPatterns = blockingEnabled ? ConfigurationReader.getNetworkBlockPatterns() : List.of();
+        Path cacheDir = cacheEnabled ? Paths.get(ConfigurationReader.getNetworkCacheDir()) : null;
+        Duration cacheTtl = Duration.ofHours(ConfigurationReader.getNetworkCacheTtlHours());
+        TrafficStats stats = statsPool.get();
+
+        if (cacheDir != null) {
+            try {
+                Files.createDirectories(cacheDir);
+            } catch (IOException e) {
+                logger.warn("Failed to create network cache directory, caching disabled: " + cacheDir, e);
+                cacheDir = null;
+            }
+        }
+
+        Filter filter = createFilter(blockedPatterns, cacheDir, cacheTtl, stats);
+        interceptorPool.set(new NetworkInterceptor(driver, filter));
+        logger.info("Network optimization installed - blocked patterns: " + blockedPatterns.size()
+                + ", asset cache: " + (cacheDir != null ? cacheDir.toAbsolutePath() : "disabled"));
+    }
+
+    public static void uninstall() {
+        NetworkInterceptor interceptor = interceptorPool.get();
+        if (interceptor != null) {
+            try {
+                interceptor.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close network interceptor: " + e.getMessage());
+            }
+            interceptorPool.remove();
+            logger.info("Network optimization removed. Session totals: " + statsPool.get().summary());
+        }
+    }
+
+    public static boolean isActive() {
+        return interceptorPool.get() != null;
+    }
+
+    public static void resetStats() {
+        statsPool.get().reset();
+    }
+
+    public static TrafficStats getStats() {
+        return statsPool.get();
+    }
+
+    private static Filter createFilter(List<String> blockedPatterns, Path cacheDir, Duration cacheTtl, TrafficStats stats) {
+        return next -> req -> {
+            String url = req.getUri();
+            String normalizedUrl = url.toLowerCase(Locale.ROOT);
+
+            for (String pattern : blockedPatterns) {
+                if (normalizedUrl.contains(pattern)) {
+                    stats.blockedRequests.incrementAndGet();
+                    logger.debug("Blocked request: " + url);
+                    return new HttpResponse().setStatus(204);
+                }
+            }
+
+            if (cacheDir == null || !isCacheable(req)) {
+                return next.execute(req);
+            }
+
+            String key = cacheKey(url);
+            Path body = cacheDir.resolve(key + ".bin");
+            Path meta = cacheDir.resolve(key + ".meta");
+            HttpResponse cached = readFromCache(body, meta, cacheTtl);
+            if (cached != null) {
+                stats.cachedRequests.incrementAndGet();
+                stats.cachedBytes.addAndGet(cached.getContent().length());
+                return cached;
+            }
+
+            HttpResponse response = next.execute(req);
+            if (response.getStatus() == 200) {
+                writeToCache(response, body, meta);
+            }
+            return response;
+        };
+    }
+
+    private static boolean isCacheable(HttpRequest req) {
+        if (req.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        String path = req.getUri().toLowerCase(Locale.ROOT);
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        for (String extension : STATIC_EXTENSIONS) {
+            if (path.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static HttpResponse readFromCache(Path body, Path meta, Duration ttl) {
+        try {
+            if (!Files.exists(body) || !Files.exists(meta)) {
+                return null;
+            }
+            Instant storedAt = Files.getLastModifiedTime(body).toInstant();
+            if (storedAt.plus(ttl).isBefore(Instant.now())) {
+                return null;
+            }
+            HttpResponse response = new HttpResponse().setStatus(200);
+            for (String line : Files.readAllLines(meta, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf(':');
+                if (separator > 0) {
+                    response.setHeader(line.substring(0, separator), line.substring(separator + 1).trim());
+                }
+            }
+            response.setContent(Contents.bytes(Files.readAllBytes(body)));
+            return response;
+        } catch (IOException e) {
+            logger.debug("Cache read failed for " + body + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeToCache(HttpResponse response, Path body, Path meta) {
+        try {
+            byte[] bytes = Contents.bytes(response.getContent());
+            // The body supplier may be single-use, so hand the browser a fresh copy
+            response.setContent(Contents.bytes(bytes));
+
+            StringBuilder headers = new StringBuilder();
+            for (String name : CACHED_HEADERS) {
+                String value = response.getHeader(name);
+                if (value != null) {
+                    headers.append(name).append(": ").append(value).append('\n');
+                }
+            }
+            // Headers first: a reader only uses the entry once the body exists, and never sees a partial file
+            writeAtomically(meta, headers.toString().getBytes(StandardCharsets.UTF_8));
+            writeAtomically(body, bytes);
+        } catch (IOException e) {
+            logger.debug("Cache write failed for " + body + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "asset", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String cacheKey(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Counters of requests the browser did not have to send over the network
+     */
+    public static class TrafficStats {
+        private final AtomicLong blockedRequests = new AtomicLong();
+        private final AtomicLong cachedRequests = new AtomicLong();
+        private final AtomicLong cachedBytes = new AtomicLong();
+
+        public long getBlockedRequests() {
+            return blockedRequests.get();
+        }
+
+        public long getCachedRequests() {
+            return cachedRequests.get();
+        }
+
+        public long getCachedBytes() {
+            return cachedBytes.get();
+        }
+
+        void reset() {
+            blockedRequests.set(0);
+            cachedRequests.set(0);
+            cachedBytes.set(0);
+        }
+
+        public String summary() {
+            return "blocked requests: " + getBlockedRequests()
+                    + ", served from cache: " + getCachedRequests()
+                    + " (" + (getCachedBytes() / 1024) + " KB saved)";
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.iskender.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects browser-side page performance (Navigation Timing, paint/LCP, long tasks) after navigations.
+ * Samples are attributed to the page object created for the document, reported per test
+ * and written as a JSON time series at the end of the suite.
+ */
+public class PerformanceCollector {
+
+    private static final Logger logger = LogManager.getLogger(PerformanceCollector.class);
+
+    private static final List<PageTiming> timeSeries = Collections.synchronizedList(new ArrayList<>());
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<List<PageTiming>> testSamples = ThreadLocal.withInitial(ArrayList::new);
+
+    // LCP and long tasks are only exposed through buffered PerformanceObservers
+    private static final String COLLECT_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            // Only the first call per document collects; later ones return at once without waiting for observers
+            + "if (window.__perfCaptured) { done(null); return; }"
+            + "window.__perfCaptured = true;"
+            + "var result = {timeOrigin: performance.timeOrigin, url: location.href};"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (nav) {"
+            + "  result.dns = nav.domainLookupEnd - nav.domainLookupStart;"
+            + "  result.connect = nav.connectEnd - nav.connectStart;"
+            + "  result.ttfb = nav.responseStart - nav.requestStart;"
+            + "  result.domContentLoaded = nav.domContentLoadedEventEnd;"
+            + "  result.load = nav.loadEventEnd;"
+            + "  result.transferSize = nav.transferSize;"
+            + "}"
+            + "performance.getEntriesByType('paint').forEach(function(p) {"
+            + "  if (p.name === 'first-contentful-paint') { result.fcp = p.startTime; }"
+            + "});"
+            + "var supported = PerformanceObserver.supportedEntryTypes || [];"
+            + "var observers = [];"
+            + "var lcp = null, longTasks = 0, longTaskTime = 0;"
+            + "function observe(type, callback) {"
+            + "  if (supported.indexOf(type) < 0) { return; }"
+            + "  var observer = new PerformanceObserver(function(list) { list.getEntries().forEach(callback); });"
+            + "  observer.observe({type: type, buffered: true});"
+            + "  observers.push(observer);"
+            + "}"
+            + "observe('largest-contentful-paint', function(e) { lcp = Math.max(lcp || 0, e.startTime); });"
+            + "observe('longtask', function(e) { longTasks++; longTaskTime += e.duration; });"
+            + "setTimeout(function() {"
+            + "  observers.forEach(function(o) { o.disconnect(); });"
+            + "  result.lcp = lcp; result.longTasks = longTasks; result.longTaskTime = longTaskTime;"
+            + "  done(result);"
+            + "}, 50);";
+
+    private PerformanceCollector() {}
+
+    public static boolean isEnabled() {
+        return ConfigurationReader.getBooleanProperty("perf.capture.enabled", true);
+    }
+
+    public static void startTest(String testName) {
+        currentTest.set(testName);
+        testSamples.get().clear();
+    }
+
+    /**
+     * Reads the performance entries of the current document once its page object is ready. Repeated
+     * calls for the same document return without collecting again.
+     * @param pageName simple class name of the page object, the sample is reported under it
+     */
+    @SuppressWarnings("unchecked")
+    public static void captureNavigation(String pageName) {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            Object raw = ((JavascriptExecutor) Driver.getDriver()).executeAsyncScript(COLLECT_SCRIPT);
+            if (!(raw instanceof Map)) {
+                return;
+            }
+            Map<String, Object> entries = (Map<String, Object>) raw;
+            PageTiming timing = new PageTiming(currentTest.get(), String.valueOf(entries.get("url")), pageName, entries);
+            timeSeries.add(timing);
+            testSamples.get().add(timing);
+            logger.info("Page timing captured: " + timing.describe());
+        } catch (Exception e) {
+            logger.warn("Failed to capture page performance: " + e.getMessage());
+        }
+    }
+
+    public static List<PageTiming> getTestSamples() {
+        return new ArrayList<>(testSamples.get());
+    }
+
+    /**
+     * Checks a sample against the perf.budget.* limits from configuration
+     * @return human readable budget violations, empty when within budget
+     */
+    public static List<String> checkBudgets(PageTiming timing) {
+        List<String> violations = new ArrayList<>();
+        checkBudget(violations, timing, "ttfb", timing.getTtfb());
+        checkBudget(violations, timing, "fcp", timing.getFcp());
+        checkBudget(violations, timing, "lcp", timing.getLcp());
+        checkBudget(violations, timing, "load", timing.getLoad());
+        checkBudget(violations, timing, "longtask", timing.getLongTaskTime());
+        return violations;
+    }
+
+    private static void checkBudget(List<String> violations, PageTiming timing, String metric, Double value) {
+        int budget = ConfigurationReader.getIntProperty("perf.budget." + metric + ".ms", 0);
+        if (budget > 0 && value != null && value > budget) {
+            violations.add(timing.getPage() + " " + metric + " " + Math.round(value) + "ms exceeds budget " + budget + "ms");
+        }
+    }
+
+    /**
+     * Writes all samples and per page object aggregates to test-output/performance
+     */
+    public static void writeTimeSeries() {
+        if (timeSeries.isEmpty()) {
+            return;
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File target = new File(System.getProperty("user.dir") + "/test-output/performance/page-timings_" + timestamp + ".json");
+        target.getParentFile().mkdirs();
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        synchronized (timeSeries) {
+            output.put("pages", aggregateByPage(timeSeries));
+            output.put("samples", new ArrayList<>(timeSeries));
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(target, output);
+            logger.info("Page timing time series saved to: " + target.getPath());
+        } catch (IOException e) {
+            logger.error("Failed to write page timing time series", e);
+        }
+    }
+
+    private static Map<String, Map<String, Object>> aggregateByPage(List<PageTiming> samples) {
+        Map<String, List<PageTiming>> byPage = new TreeMap<>();
+        for (PageTiming timing : samples) {
+            byPage.computeIfAbsent(timing.getPage(), key -> new ArrayList<>()).add(timing);
+        }
+        Map<String, Map<String, Object>> aggregates = new LinkedHashMap<>();
+        for (Map.Entry<String, List<PageTiming>> entry : byPage.entrySet()) {
+            List<PageTiming> pageSamples = entry.getValue();
+            Map<String, Object> aggregate = new LinkedHashMap<>();
+            aggregate.put("count", pageSamples.size());
+            aggregate.put("avgTtfb", average(pageSamples, PageTiming::getTtfb));
+            aggregate.put("avgFcp", average(pageSamples, PageTiming::getFcp));
+            aggregate.put("avgLcp", average(pageSamples, PageTiming::getLcp));
+            aggregate.put("avgLoad", average(pageSamples, PageTiming::getLoad));
+            aggregate.put("avgLongTaskTime", average(pageSamples, PageTiming::getLongTaskTime));
+            aggregates.put(entry.getKey(), aggregate);
+        }
+        return aggregates;
+    }
+
+    private static Long average(List<PageTiming> samples, java.util.function.Function<PageTiming, Double> metric) {
+        double total = 0;
+        int count = 0;
+        for (PageTiming timing : samples) {
+            Double value = metric.apply(timing);
+            if (value != null) {
+                total += value;
+                count++;
+            }
+        }
+        return count > 0 ? Math.round(total / count) : null;
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    // Entries that are not reached yet (e.g. load event with an eager page load strategy) report 0
+    private static Double positive(Object value) {
+        Double number = toDouble(value);
+        return number != null && number > 0 ? number : null;
+    }
+
+    /**
+     * One performance sample of a document, times in milliseconds relative to navigation start
+     */
+    public static class PageTiming {
+        private final long capturedAt = System.currentTimeMillis();
+        private final String test;
+        private final String url;
+        private final String page;
+        private final Double dns;
+        private final Double connect;
+        private final Double ttfb;
+        private final Double fcp;
+        private final Double lcp;
+        private final Double domContentLoaded;
+        private final Double load;
+        private final Double longTasks;
+        private final Double longTaskTime;
+        private final Double transferSize;
+
+        PageTiming(String test, String url, String page, Map<String, Object> entries) {
+            this.test = test;
+            this.url = url;
+            this.page = page;
+            this.dns = toDouble(entries.get("dns"));
+            this.connect = toDouble(entries.get("connect"));
+            this.ttfb = toDouble(entries.get("ttfb"));
+            this.fcp = positive(entries.get("fcp"));
+            this.lcp = positive(entries.get("lcp"));
+            this.domContentLoaded = positive(entries.get("domContentLoaded"));
+            this.load = positive(entries.get("load"));
+            this.longTasks = toDouble(entries.get("longTasks"));
+            this.longTaskTime = toDouble(entries.get("longTaskTime"));
+            this.transferSize = toDouble(entries.get("transferSize"));
+        }
+
+        public long getCapturedAt() { return capturedAt; }
+        public String getTest() { return test; }
+        public String getUrl() { return url; }
+        public String getPage() { return page; }
+        public Double getDns() { return dns; }
+        public Double getConnect() { return connect; }
+        public Double getTtfb() { return ttfb; }
+        public Double getFcp() { return fcp; }
+        public Double getLcp() { return lcp; }
+        public Double getDomContentLoaded() { return domContentLoaded; }
+        public Double getLoad() { return load; }
+        public Double getLongTasks() { return longTasks; }
+        public Double getLongTaskTime() { return longTaskTime; }
+        public Double getTransferSize() { return transferSize; }
+
+        public String describe() {
+            return page + " [TTFB " + format(ttfb) + ", FCP " + format(fcp) + ", LCP " + format(lcp)
+                    + ", DCL " + format(domContentLoaded) + ", load " + format(load)
+                    + ", long tasks " + (longTasks != null ? longTasks.intValue() : 0) + "/" + format(longTaskTime) + "]";
+        }
+
+        private static String format(Double value) {
+            return value != null ? Math.round(value) + "ms" : "n/a";
+        }
+    }
+}
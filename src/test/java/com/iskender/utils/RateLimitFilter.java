@@ -0,0 +1,75 @@
+package com.iskender.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * REST Assured filter that paces requests per host so parallel API runs do not flood shared
+ * environments. Limits come from config.properties as api.rate.limit.&lt;host&gt;=&lt;per second&gt;[,&lt;burst&gt;],
+ * e.g. api.rate.limit.petstore.swagger.io=10,20; api.rate.limit.default applies to other hosts,
+ * hosts without a limit are not paced. One {@link RateLimiter} per host is shared by all threads.
+ *
+ * The wait happens before the request is sent, so it is not part of the response time REST
+ * Assured reports; it is counted separately, see {@link #getSummary()}.
+ */
+public class RateLimitFilter implements Filter {
+
+    private static final Logger logger = LogManager.getLogger(RateLimitFilter.class);
+    private static final String PREFIX = "api.rate.limit.";
+
+    private static final Map<String, Optional<RateLimiter>> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String host = URI.create(requestSpec.getURI()).getHost();
+        if (host != null) {
+            limiterFor(host.toLowerCase(Locale.ROOT)).ifPresent(limiter -> {
+                long waitedNanos = limiter.acquire();
+                if (waitedNanos > 0) {
+                    logger.debug("Throttled " + requestSpec.getMethod() + " " + requestSpec.getURI() + " for "
+                            + waitedNanos / 1_000_000 + " ms");
+                }
+            });
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+
+    private static Optional<RateLimiter> limiterFor(String host) {
+        return limiters.computeIfAbsent(host, key -> {
+            String spec = ConfigurationReader.getProperty(PREFIX + key, ConfigurationReader.getProperty(PREFIX + "default", ""));
+            if (spec.trim().isEmpty() || spec.trim().equals("0")) {
+                return Optional.empty();
+            }
+            String[] parts = spec.split(",");
+            double perSecond = Double.parseDouble(parts[0].trim());
+            int burst = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            logger.info("Rate limit for " + key + ": " + perSecond + "/s, burst " + burst);
+            return Optional.of(new RateLimiter(key, perSecond, burst));
+        });
+    }
+
+    /**
+     * One line per paced host: requests, how many were throttled and for how long
+     */
+    public static String getSummary() {
+        List<String> lines = new ArrayList<>();
+        for (Optional<RateLimiter> limiter : limiters.values()) {
+            limiter.ifPresent(rateLimiter -> lines.add(rateLimiter.getSummary()));
+        }
+        return lines.isEmpty() ? "no rate limited hosts" : String.join("; ", lines);
+    }
+}
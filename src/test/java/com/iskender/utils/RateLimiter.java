@@ -0,0 +1,107 @@
+package com.iskender.utils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket of permitsPerSecond with room for burst permits, shared by any number of threads.
+ * The bucket is kept as a single timestamp, the time at which it would have refilled completely
+ * (generic cell rate algorithm), so taking a permit is one compare-and-set and never blocks other
+ * callers; a caller that has to wait reserves its slot first and then sleeps on its own.
+ *
+ * Counts requests, throttled requests and total throttled time for reporting.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    // Theoretical arrival time of the next permit, relative to origin
+    private final AtomicLong nextFree = new AtomicLong();
+    private final long origin = System.nanoTime();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst permits that may be taken at once after an idle period, at least 1
+     */
+    public RateLimiter(String name, double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate of " + name + " must be positive: " + permitsPerSecond);
+        }
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = (this.burst - 1) * intervalNanos;
+    }
+
+    /**
+     * Takes a permit and returns how long the caller has to wait before using it, without waiting
+     * @return nanoseconds to wait, 0 if the permit is available now
+     */
+    public long reserve() {
+        long now = System.nanoTime() - origin;
+        long current;
+        long wait;
+        do {
+            current = nextFree.get();
+            wait = Math.max(0, current - burstNanos - now);
+        } while (!nextFree.compareAndSet(current, Math.max(current, now) + intervalNanos));
+        requests.increment();
+        if (wait > 0) {
+            throttled.increment();
+            throttledNanos.add(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Takes a permit, waiting until it is available
+     * @return nanoseconds waited
+     */
+    public long acquire() {
+        long wait = reserve();
+        long deadline = System.nanoTime() + wait;
+        for (long remaining = wait; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return wait;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getThrottledRequests() {
+        return throttled.sum();
+    }
+
+    public long getThrottledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.sum());
+    }
+
+    public String getSummary() {
+        long total = requests.sum();
+        long delayed = throttled.sum();
+        return String.format(Locale.ROOT, "%s at %.1f/s (burst %d): %d requests, %d throttled, %d ms waited in total, %.1f ms on average",
+                name, permitsPerSecond, burst, total, delayed, getThrottledMillis(),
+                delayed == 0 ? 0.0 : throttledNanos.sum() / 1_000_000.0 / delayed);
+    }
+}
@@ -3,6 +3,7 @@ package com.iskender.utils;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
@@ -32,6 +33,12 @@ public class ReportManager {
         }
     }
 
+    public static void addSystemInfo(String key, String value) {
+        if (extent != null) {
+            extent.setSystemInfo(key, value);
+        }
+    }
+
     public static void createTest(String testName, String description) {
         ExtentTest extentTest = extent.createTest(testName, description);
         test.set(extentTest);
@@ -69,6 +76,19 @@ public class ReportManager {
         }
     }
 
+    public static void logTable(String[][] rows) {
+        if (test.get() != null && rows.length > 0) {
+            test.get().log(Status.INFO, MarkupHelper.createTable(rows));
+        }
+    }
+
+    public static void logCodeBlock(String title, String text) {
+        if (test.get() != null) {
+            test.get().log(Status.INFO, title);
+            test.get().log(Status.INFO, MarkupHelper.createCodeBlock(text));
+        }
+    }
+
     public static void addScreenshot(String screenshotPath) {
         if (test.get() != null && screenshotPath != null) {
             // Skip file-based screenshot for now - use base64 only for reliability
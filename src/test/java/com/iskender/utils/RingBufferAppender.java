@@ -0,0 +1,186 @@
+package com.iskender.utils;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.Filterable;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Log4j2 appender that keeps the events of a running test in a bounded ring buffer of the test's
+ * thread instead of writing them, see {@link TestLogCapture}. Only the last capacity events of a
+ * test are kept; nothing is formatted or written unless the test fails.
+ *
+ * Events of threads without a running capture (suite and class setup, background pools) and
+ * events at or above immediateLevel go straight to the nested appender references.
+ *
+ * log4j2.xml: {@code <RingBuffer name="TestLogBuffer" capacity="2000" immediateLevel="WARN"><AppenderRef ref="Console"/></RingBuffer>}
+ */
+@Plugin(name = "RingBuffer", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public class RingBufferAppender extends AbstractAppender {
+
+    private static final ThreadLocal<Ring> rings = new ThreadLocal<>();
+
+    // The one configured instance, its layout formats the events of failed tests
+    private static volatile RingBufferAppender instance;
+
+    private final int capacity;
+    private final Level immediateLevel;
+    private final AppenderRef[] appenderRefs;
+    private final Configuration configuration;
+    private volatile List<Appender> targets;
+
+    private RingBufferAppender(String name, Filter filter, Layout<?> layout, int capacity, Level immediateLevel,
+                               AppenderRef[] appenderRefs, Configuration configuration) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+        this.capacity = capacity;
+        this.immediateLevel = immediateLevel;
+        this.appenderRefs = appenderRefs == null ? new AppenderRef[0] : appenderRefs;
+        this.configuration = configuration;
+    }
+
+    @PluginFactory
+    public static RingBufferAppender createAppender(@PluginAttribute("name") String name,
+                                                    @PluginAttribute(value = "capacity", defaultInt = 2000) int capacity,
+                                                    @PluginAttribute(value = "immediateLevel", defaultString = "ERROR") String immediateLevel,
+                                                    @PluginElement("Layout") Layout<?> layout,
+                                                    @PluginElement("Filter") Filter filter,
+                                                    @PluginElement("AppenderRef") AppenderRef[] appenderRefs,
+                                                    @PluginConfiguration Configuration configuration) {
+        if (layout == null) {
+            layout = PatternLayout.newBuilder().withPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n").build();
+        }
+        RingBufferAppender appender = new RingBufferAppender(name, filter, layout, Math.max(1, capacity),
+                Level.toLevel(immediateLevel, Level.ERROR), appenderRefs, configuration);
+        instance = appender;
+        return appender;
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        Ring ring = rings.get();
+        if (ring != null) {
+            ring.add(event.toImmutable());
+        }
+        if (ring == null || event.getLevel().isMoreSpecificThan(immediateLevel)) {
+            for (Appender target : targets()) {
+                // Called directly, so the target's own filter (e.g. ErrorFile's threshold) is applied here
+                if (!(target instanceof Filterable) || !((Filterable) target).isFiltered(event)) {
+                    target.append(event);
+                }
+            }
+        }
+    }
+
+    private List<Appender> targets() {
+        // Referenced appenders are resolved on first use, they may be started after this one
+        if (targets == null) {
+            List<Appender> resolved = new ArrayList<>();
+            for (AppenderRef ref : appenderRefs) {
+                Appender appender = configuration.getAppender(ref.getRef());
+                if (appender != null) {
+                    resolved.add(appender);
+                } else {
+                    error("Appender " + ref.getRef() + " referenced by " + getName() + " not found");
+                }
+            }
+            targets = resolved;
+        }
+        return targets;
+    }
+
+    /**
+     * Starts buffering the current thread's events, dropping whatever an earlier capture left
+     * @return false if log4j2.xml does not route events through a RingBuffer appender
+     */
+    static boolean startCapture() {
+        RingBufferAppender appender = instance;
+        if (appender == null || !appender.isStarted()) {
+            return false;
+        }
+        rings.set(new Ring(appender.capacity));
+        return true;
+    }
+
+    /**
+     * Stops buffering the current thread's events and returns them formatted, oldest first
+     */
+    static CapturedLog stopCapture(boolean format) {
+        Ring ring = rings.get();
+        rings.remove();
+        if (ring == null) {
+            return new CapturedLog(0, 0, new byte[0]);
+        }
+        byte[] text = new byte[0];
+        if (format && instance != null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (LogEvent event : ring.events()) {
+                byte[] line = instance.getLayout().toByteArray(event);
+                out.write(line, 0, line.length);
+            }
+            text = out.toByteArray();
+        }
+        return new CapturedLog(ring.total, ring.total - ring.size, text);
+    }
+
+    /**
+     * Events of one capture: how many were logged, how many the buffer dropped, the kept ones formatted
+     */
+    static class CapturedLog {
+        final long logged;
+        final long dropped;
+        final byte[] text;
+
+        CapturedLog(long logged, long dropped, byte[] text) {
+            this.logged = logged;
+            this.dropped = dropped;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Fixed-size ring, only touched by its own thread
+     */
+    private static class Ring {
+        private final LogEvent[] buffer;
+        private int next;
+        private int size;
+        private long total;
+
+        Ring(int capacity) {
+            this.buffer = new LogEvent[capacity];
+        }
+
+        void add(LogEvent event) {
+            buffer[next] = event;
+            next = (next + 1) % buffer.length;
+            size = Math.min(size + 1, buffer.length);
+            total++;
+        }
+
+        List<LogEvent> events() {
+            List<LogEvent> events = new ArrayList<>(size);
+            int start = (next - size + buffer.length) % buffer.length;
+            for (int i = 0; i < size; i++) {
+                events.add(buffer[(start + i) % buffer.length]);
+            }
+            return events;
+        }
+    }
+}
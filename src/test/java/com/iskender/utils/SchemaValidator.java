@@ -0,0 +1,74 @@
+package com.iskender.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON Schema (draft 7) contract validation for API responses. Schemas are loaded from
+ * src/test/resources/schemas, compiled once per JVM and validate an already parsed JsonNode
+ * in a single pass.
+ */
+public class SchemaValidator {
+
+    private static final Logger logger = LogManager.getLogger(SchemaValidator.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+    private static final Map<String, JsonSchema> schemaCache = new ConcurrentHashMap<>();
+
+    private SchemaValidator() {}
+
+    /**
+     * Parses a response body once, so schema validation and field checks share the same tree
+     */
+    public static JsonNode parse(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Response body is not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param schemaName file name without extension under schemas/, e.g. "pet"
+     * @param node parsed response body
+     * @return violation messages, empty when the node matches the schema
+     */
+    public static List<String> validate(String schemaName, JsonNode node) {
+        List<String> violations = new ArrayList<>();
+        for (ValidationMessage message : getSchema(schemaName).validate(node)) {
+            violations.add(message.getMessage());
+        }
+        return violations;
+    }
+
+    private static JsonSchema getSchema(String schemaName) {
+        return schemaCache.computeIfAbsent(schemaName, name -> {
+            String resource = "schemas/" + name + ".json";
+            try (InputStream in = SchemaValidator.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Schema not found on classpath: " + resource);
+                }
+                JsonSchema schema = schemaFactory.getSchema(mapper.readTree(in));
+                // Resolve $refs now instead of during the first validation
+                schema.initializeValidators();
+                logger.info("JSON schema compiled: " + resource);
+                return schema;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read schema " + resource, e);
+            }
+        });
+    }
+}
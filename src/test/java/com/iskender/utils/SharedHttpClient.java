@@ -0,0 +1,96 @@
+package com.iskender.utils;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * One pooled HTTP client for every REST Assured request of the JVM, instead of a new client and
+ * connection per request, so test threads, the concurrent request pool and fixture cleanup reuse
+ * keep-alive connections to the API host.
+ *
+ * A pooled connection stays leased until its response body is read, so bodies that declare a length
+ * of up to api.http.buffer.max.kb are read as soon as the response arrives and the connection goes
+ * straight back to the pool. Larger bodies and chunked bodies of unknown length stay streamed (e.g.
+ * for {@link StreamingJsonValidator}), so memory stays bounded, and release their connection when
+ * read to the end or closed. A request with the {@link #streamBody()} header always keeps its body
+ * streamed, e.g. when the test reads it with a streaming parser to bound memory.
+ */
+public class SharedHttpClient {
+
+    private static final Logger logger = LogManager.getLogger(SharedHttpClient.class);
+
+    // Marker header, removed before the request is sent
+    private static final String STREAM_BODY_HEADER = "X-Test-Stream-Body";
+    private static final String STREAM_BODY_ATTRIBUTE = "shared.http.stream.body";
+
+    private static final ThreadLocal<Boolean> lastBodyBuffered = ThreadLocal.withInitial(() -> false);
+
+    private static boolean installed;
+
+    private SharedHttpClient() {}
+
+    /**
+     * Request header that keeps the response body streamed regardless of its length
+     */
+    public static Header streamBody() {
+        return new Header(STREAM_BODY_HEADER, "true");
+    }
+
+    /**
+     * Whether the body of the last response received on this thread was buffered on arrival
+     */
+    public static boolean isLastBodyBuffered() {
+        return lastBodyBuffered.get();
+    }
+
+    /**
+     * Configures REST Assured to use the shared client; later calls do nothing
+     */
+    @SuppressWarnings("deprecation")
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        int poolSize = ConfigurationReader.getIntProperty("api.http.pool.size", 20);
+        long bufferLimit = ConfigurationReader.getIntProperty("api.http.buffer.max.kb", 1024) * 1024L;
+
+        PoolingClientConnectionManager connections = new PoolingClientConnectionManager();
+        connections.setMaxTotal(poolSize);
+        connections.setDefaultMaxPerRoute(poolSize);
+
+        RestAssured.config = RestAssured.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                // Fail instead of hanging if unread streamed bodies ever exhaust the pool
+                .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, ConfigurationReader.getIntProperty("api.http.lease.timeout.seconds", 60) * 1000L)
+                .httpClientFactory(() -> {
+                    DefaultHttpClient client = new DefaultHttpClient(connections);
+                    client.addRequestInterceptor((request, context) -> {
+                        if (request.containsHeader(STREAM_BODY_HEADER)) {
+                            request.removeHeaders(STREAM_BODY_HEADER);
+                            context.setAttribute(STREAM_BODY_ATTRIBUTE, true);
+                        }
+                    });
+                    client.addResponseInterceptor((response, context) -> {
+                        HttpEntity entity = response.getEntity();
+                        // -1 is an unknown length (chunked), which could be any size
+                        long length = entity != null ? entity.getContentLength() : -1;
+                        boolean buffer = context.getAttribute(STREAM_BODY_ATTRIBUTE) == null && 0 <= length && length <= bufferLimit;
+                        if (buffer) {
+                            response.setEntity(new BufferedHttpEntity(entity));
+                        }
+                        lastBodyBuffered.set(buffer);
+                    });
+                    return client;
+                }));
+        installed = true;
+        logger.info("Shared HTTP client installed with " + poolSize + " pooled connections");
+    }
+}
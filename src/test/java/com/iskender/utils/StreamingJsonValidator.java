@@ -0,0 +1,201 @@
+package com.iskender.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Validates a top-level JSON array element by element while the body is read, using Jackson's
+ * streaming JsonParser. Only the scalar fields of the current element are held in memory, nested
+ * objects and arrays are skipped, and reading stops at the first violation.
+ */
+public class StreamingJsonValidator {
+
+    private static final Logger logger = LogManager.getLogger(StreamingJsonValidator.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final List<Rule> rules = new ArrayList<>();
+    private int minElements = 0;
+    private boolean failFast = true;
+
+    private StreamingJsonValidator() {}
+
+    public static StreamingJsonValidator forArray() {
+        return new StreamingJsonValidator();
+    }
+
+    /**
+     * Every element must have the given scalar field with exactly this text value
+     */
+    public StreamingJsonValidator expectField(String field, String expected) {
+        return expect(field + " equals '" + expected + "'", element -> Objects.equals(expected, element.get(field)));
+    }
+
+    /**
+     * Every element must have the given field as an integral number that fits into int64
+     */
+    public StreamingJsonValidator expectInt64Field(String field) {
+        return expect(field + " is an int64 number", element -> element.get(field) instanceof Long);
+    }
+
+    /**
+     * @param description used in the violation message
+     * @param predicate evaluated on the scalar fields of each element (strings, Long, BigInteger, Double, Boolean, null)
+     */
+    public StreamingJsonValidator expect(String description, Predicate<Map<String, Object>> predicate) {
+        rules.add(new Rule(description, predicate));
+        return this;
+    }
+
+    public StreamingJsonValidator minElements(int count) {
+        this.minElements = count;
+        return this;
+    }
+
+    /**
+     * @param failFast false to read the whole body and count every violation
+     */
+    public StreamingJsonValidator failFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Reads and validates the stream; the stream is closed when validation ends, also on early abort
+     */
+    public Result validate(InputStream body) {
+        Result result = new Result();
+        try (InputStream in = body; JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                result.fail(-1, "response body is not a JSON array");
+                return result;
+            }
+            Map<String, Object> element = new HashMap<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    result.fail(result.elementCount, "unexpected end of input");
+                    return result;
+                }
+                int index = result.elementCount++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    result.fail(index, "element is not a JSON object");
+                } else {
+                    readScalarFields(parser, element);
+                    for (Rule rule : rules) {
+                        if (!rule.predicate.test(element)) {
+                            result.fail(index, rule.description + " violated by " + element);
+                            break;
+                        }
+                    }
+                }
+                if (failFast && result.violationCount > 0) {
+                    logger.info("Streaming validation aborted at element " + index + ": " + result.firstViolation);
+                    return result;
+                }
+            }
+            result.complete = true;
+            if (result.elementCount < minElements) {
+                result.fail(-1, "expected at least " + minElements + " elements but got " + result.elementCount);
+            }
+        } catch (IOException e) {
+            result.fail(result.elementCount, "failed to read JSON: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private static void readScalarFields(JsonParser parser, Map<String, Object> element) throws IOException {
+        element.clear();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == null) {
+                throw new IOException("unexpected end of input in field '" + field + "'");
+            }
+            switch (value) {
+                case VALUE_STRING:
+                    element.put(field, parser.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                    element.put(field, parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                            ? parser.getBigIntegerValue() : (Object) parser.getLongValue());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    element.put(field, parser.getDoubleValue());
+                    break;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    element.put(field, parser.getBooleanValue());
+                    break;
+                case VALUE_NULL:
+                    element.put(field, null);
+                    break;
+                default:
+                    // Nested objects/arrays (category, tags, photoUrls) are not needed for element rules
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private static class Rule {
+        private final String description;
+        private final Predicate<Map<String, Object>> predicate;
+
+        Rule(String description, Predicate<Map<String, Object>> predicate) {
+            this.description = description;
+            this.predicate = predicate;
+        }
+    }
+
+    /**
+     * Outcome of a streaming validation
+     */
+    public static class Result {
+        private int elementCount;
+        private int violationCount;
+        private String firstViolation;
+        private boolean complete;
+
+        private void fail(int index, String message) {
+            violationCount++;
+            if (firstViolation == null) {
+                firstViolation = (index >= 0 ? "element " + index + ": " : "") + message;
+            }
+        }
+
+        public boolean isValid() {
+            return violationCount == 0;
+        }
+
+        /**
+         * @return number of elements read; when validation aborted early this is not the total size
+         */
+        public int getElementCount() {
+            return elementCount;
+        }
+
+        public int getViolationCount() {
+            return violationCount;
+        }
+
+        public String getFirstViolation() {
+            return firstViolation;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
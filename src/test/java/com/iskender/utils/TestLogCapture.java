@@ -0,0 +1,84 @@
+package com.iskender.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-test log capture on top of {@link RingBufferAppender}. While a test runs its log events stay
+ * in memory on its own thread; a failed or retried test gets them written to
+ * test-output/logs/tests/&lt;Class&gt;.&lt;method&gt;.log and attached to its Extent test, a passing
+ * test leaves a one-line summary. Per-test files are not interleaved with parallel tests.
+ */
+public class TestLogCapture {
+
+    private static final Logger logger = LogManager.getLogger(TestLogCapture.class);
+    private static final Path LOG_DIR = Paths.get("test-output", "logs", "tests");
+
+    // Attempts per test, so a retried test keeps the log of every failed attempt
+    private static final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+    private TestLogCapture() {}
+
+    public static boolean isEnabled() {
+        return ConfigurationReader.getBooleanProperty("log.capture.enabled", true);
+    }
+
+    /**
+     * Starts buffering the current thread's log events; call before the first log line of the test
+     */
+    public static void start() {
+        if (isEnabled() && !RingBufferAppender.startCapture()) {
+            logger.debug("No RingBuffer appender configured, test logs are written directly");
+        }
+    }
+
+    /**
+     * Ends the capture of the current thread: persists and attaches the log of a failed or retried
+     * test, logs a one-line summary otherwise
+     */
+    public static void finish(ITestResult result) {
+        String testName = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        boolean keep = result.getStatus() == ITestResult.FAILURE || result.wasRetried();
+        RingBufferAppender.CapturedLog log = RingBufferAppender.stopCapture(keep);
+        long elapsed = result.getEndMillis() - result.getStartMillis();
+        if (!keep) {
+            logger.info(status(result) + " " + testName + " in " + elapsed + " ms (" + log.logged + " log lines not written)");
+            return;
+        }
+        if (log.text.length == 0) {
+            return;
+        }
+
+        int attempt = attempts.computeIfAbsent(testName, key -> new AtomicInteger()).incrementAndGet();
+        Path file = LOG_DIR.resolve(testName + (attempt > 1 ? "-attempt" + attempt : "") + ".log");
+        String text = new String(log.text, StandardCharsets.UTF_8);
+        if (log.dropped > 0) {
+            text = "[" + log.dropped + " earlier log lines dropped, buffer holds the last " + (log.logged - log.dropped) + "]\n" + text;
+        }
+        try {
+            Files.createDirectories(LOG_DIR);
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Failed to write test log " + file + ": " + e.getMessage());
+        }
+        ReportManager.logCodeBlock("Test log (" + file + ")", text);
+        logger.info(status(result) + " " + testName + " in " + elapsed + " ms, log written to " + file);
+    }
+
+    private static String status(ITestResult result) {
+        if (result.wasRetried()) {
+            return "RETRIED";
+        }
+        return result.getStatus() == ITestResult.SUCCESS ? "PASSED" : result.getStatus() == ITestResult.FAILURE ? "FAILED" : "SKIPPED";
+    }
+}
@@ -0,0 +1,241 @@
+package com.iskender.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Counts and times every WebDriver command (a call on the driver, an element, navigation, options or
+ * windows, each one remote round trip) per command and per page object method that issued it.
+ * Driver installs it through an EventFiringDecorator; the slowest commands of a test are reported in
+ * its report entry and the whole suite is written as JSON to test-output/performance.
+ */
+public class WebDriverCommandTracer implements WebDriverListener {
+
+    private static final Logger logger = LogManager.getLogger(WebDriverCommandTracer.class);
+
+    // Accessors that only return a local facade of the driver, no command is sent. Setters like
+    // Timeouts.implicitlyWait return a facade as well but are real commands, hence the name check
+    private static final Set<String> ACCESSORS = Set.of("manage", "navigate", "switchTo", "timeouts", "window");
+    private static final Set<Class<?>> FACADES = Set.of(WebDriver.Options.class, WebDriver.Navigation.class,
+            WebDriver.TargetLocator.class, WebDriver.Timeouts.class, WebDriver.Window.class);
+
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private static final Map<String, CommandStats> suiteCommands = new ConcurrentHashMap<>();
+    private static final Map<String, CommandStats> suitePageMethods = new ConcurrentHashMap<>();
+    private static final List<Map<String, Object>> testSummaries = new ArrayList<>();
+
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, CommandStats>> testCommands = ThreadLocal.withInitial(LinkedHashMap::new);
+    private static final ThreadLocal<Map<String, CommandStats>> testPageMethods = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    // Calls can nest, e.g. an element returned by findElement is used inside a wait condition
+    private final ThreadLocal<Deque<Long>> running = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static boolean isEnabled() {
+        return ConfigurationReader.getBooleanProperty("webdriver.trace.enabled", true);
+    }
+
+    public static void startTest(String testName) {
+        currentTest.set(testName);
+        testCommands.get().clear();
+        testPageMethods.get().clear();
+    }
+
+    /**
+     * Per command statistics of the current test, slowest in total first
+     */
+    public static List<CommandStats> getTestCommands() {
+        return sorted(testCommands.get().values());
+    }
+
+    /**
+     * Per page object method statistics of the current test, slowest in total first
+     */
+    public static List<CommandStats> getTestPageMethods() {
+        return sorted(testPageMethods.get().values());
+    }
+
+    /**
+     * Adds the current test's totals to the suite export and ends it
+     */
+    public static void endTest() {
+        String test = currentTest.get();
+        currentTest.remove();
+        if (test == null || testCommands.get().isEmpty()) {
+            return;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("test", test);
+        summary.put("commands", getTestCommands());
+        summary.put("pageMethods", getTestPageMethods());
+        synchronized (testSummaries) {
+            testSummaries.add(summary);
+        }
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        running.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        end(method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        end(method, true);
+    }
+
+    private void end(Method method, boolean failed) {
+        Long started = running.get().poll();
+        if (started == null || isAccessor(method)) {
+            return;
+        }
+        long nanos = System.nanoTime() - started;
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        String pageMethod = callingPageMethod();
+
+        suiteCommands.computeIfAbsent(command, CommandStats::new).record(nanos, failed);
+        suitePageMethods.computeIfAbsent(pageMethod, CommandStats::new).record(nanos, failed);
+        if (currentTest.get() != null) {
+            testCommands.get().computeIfAbsent(command, CommandStats::new).record(nanos, failed);
+            testPageMethods.get().computeIfAbsent(pageMethod, CommandStats::new).record(nanos, failed);
+        }
+    }
+
+    // TargetLocator.window(String) shares the name but switches windows and returns the driver
+    private static boolean isAccessor(Method method) {
+        return ACCESSORS.contains(method.getName()) && FACADES.contains(method.getReturnType());
+    }
+
+    /**
+     * Outermost page object frame of the caller, i.e. the page method the test called; BrowserUtils
+     * or the test method itself when no page object is involved
+     */
+    private static String callingPageMethod() {
+        return walker.walk(frames -> {
+            String page = null;
+            String helper = null;
+            String test = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (className.startsWith("com.iskender.pages.")) {
+                    page = label(frame);
+                } else if (helper == null && className.equals(BrowserUtils.class.getName())) {
+                    helper = label(frame);
+                } else if (className.startsWith("com.iskender.tests.")) {
+                    test = label(frame);
+                }
+            }
+            return page != null ? page : helper != null ? helper : test != null ? test : "(framework)";
+        });
+    }
+
+    private static String label(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+    }
+
+    private static List<CommandStats> sorted(Collection<CommandStats> stats) {
+        return stats.stream()
+                .sorted(Comparator.comparingLong(CommandStats::getTotalNanos).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One line summary of the suite for the report's System Info
+     */
+    public static String getSummary() {
+        long calls = 0;
+        long nanos = 0;
+        for (CommandStats stats : suiteCommands.values()) {
+            calls += stats.getCalls();
+            nanos += stats.getTotalNanos();
+        }
+        return calls + " commands, " + nanos / 1_000_000 + " ms in total";
+    }
+
+    /**
+     * Writes suite totals per command and page object method plus every test's breakdown to
+     * test-output/performance
+     */
+    public static void writeReport() {
+        if (suiteCommands.isEmpty()) {
+            return;
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File target = new File(System.getProperty("user.dir") + "/test-output/performance/webdriver-commands_" + timestamp + ".json");
+        target.getParentFile().mkdirs();
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("commands", sorted(suiteCommands.values()));
+        output.put("pageMethods", sorted(suitePageMethods.values()));
+        synchronized (testSummaries) {
+            output.put("tests", new ArrayList<>(testSummaries));
+        }
+        try {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(target, output);
+            logger.info("WebDriver command statistics saved to: " + target.getPath());
+        } catch (IOException e) {
+            logger.error("Failed to write WebDriver command statistics", e);
+        }
+    }
+
+    /**
+     * Call count and latency of one command or page object method
+     */
+    public static class CommandStats {
+        private final String name;
+        private long calls;
+        private long failures;
+        private long totalNanos;
+        private long maxNanos;
+
+        CommandStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long nanos, boolean failed) {
+            calls++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (failed) {
+                failures++;
+            }
+        }
+
+        public String getName() { return name; }
+        public synchronized long getCalls() { return calls; }
+        public synchronized long getFailures() { return failures; }
+        public synchronized long getTotalMillis() { return totalNanos / 1_000_000; }
+        public synchronized long getAvgMillis() { return calls == 0 ? 0 : totalNanos / calls / 1_000_000; }
+        public synchronized long getMaxMillis() { return maxNanos / 1_000_000; }
+
+        synchronized long getTotalNanos() { return totalNanos; }
+    }
+}